@@ -0,0 +1,281 @@
+package com.danieldisu.benchmark;
+
+import com.danieldisu.Lists;
+import com.danieldisu.MemoizedFunc1;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import rx.functions.Action1;
+
+/**
+ * Benchmarks the Lists functions that accept any Collection, so they are run against lists and sets.
+ * Searching functions are given a predicate that never matches so they always traverse the whole input.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CollectionBenchmark {
+
+    @Param({"10", "1000", "100000", "10000000"})
+    public int size;
+
+    @Param({Inputs.ARRAY_LIST, Inputs.LINKED_LIST, Inputs.HASH_SET})
+    public String collectionType;
+
+    @Param({Inputs.INTEGER, Inputs.STRING})
+    public String elementType;
+
+    private static final int TOP_K = 10;
+
+    private Collection<Object> collection;
+    private Object missingElement;
+    private ArrayList<Object> destination;
+    private Object[] destinationArray;
+    private StringBuilder builder;
+    private MemoizedFunc1<Object, Object> memoizedHashCode;
+
+    @Setup
+    public void setUp() {
+        collection = Inputs.collection(collectionType, elementType, size);
+        missingElement = Inputs.element(elementType, -1);
+        destination = new ArrayList<>(size * 2);
+        destinationArray = new Object[size];
+        builder = new StringBuilder();
+        memoizedHashCode = MemoizedFunc1.of(Inputs.TO_HASH_CODE);
+    }
+
+    @Benchmark
+    public List<Object> map() {
+        return Lists.map(collection, Inputs.TO_HASH_CODE);
+    }
+
+    @Benchmark
+    public List<Object> mapMemoized() {
+        return Lists.map(collection, memoizedHashCode);
+    }
+
+    @Benchmark
+    public List<Object> mapIntoReusedList() {
+        destination.clear();
+        return Lists.mapInto(collection, Inputs.TO_HASH_CODE, destination);
+    }
+
+    @Benchmark
+    public int mapIntoArray() {
+        return Lists.mapInto(collection, Inputs.TO_HASH_CODE, destinationArray);
+    }
+
+    @Benchmark
+    public List<Object> filteredMap() {
+        return Lists.filteredMap(collection, Inputs.EVEN_OR_NULL);
+    }
+
+    @Benchmark
+    public Object findMap() {
+        return Lists.findMap(collection, Inputs.ALWAYS_NULL);
+    }
+
+    @Benchmark
+    public void each(final Blackhole blackhole) {
+        Lists.each(collection, new Action1<Object>() {
+            @Override
+            public void call(Object element) {
+                blackhole.consume(element);
+            }
+        });
+    }
+
+    @Benchmark
+    public List<Object> flatMap() {
+        return Lists.flatMap(collection, Inputs.TO_PAIR);
+    }
+
+    @Benchmark
+    public List<Object> distinctBy() {
+        return Lists.distinctBy(collection, Inputs.HALF_KEY);
+    }
+
+    @Benchmark
+    public List<Object> filter() {
+        return Lists.filter(collection, Inputs.IS_EVEN);
+    }
+
+    @Benchmark
+    public List<Object> filterIntoReusedList() {
+        destination.clear();
+        return Lists.filterInto(collection, Inputs.IS_EVEN, destination);
+    }
+
+    @Benchmark
+    public int filteredMapIntoArray() {
+        return Lists.filteredMapInto(collection, Inputs.EVEN_OR_NULL, destinationArray);
+    }
+
+    @Benchmark
+    public List<Object> flatMapIntoReusedList() {
+        destination.clear();
+        return Lists.flatMapInto(collection, Inputs.TO_PAIR, destination);
+    }
+
+    @Benchmark
+    public Object find() {
+        return Lists.find(collection, Inputs.NEVER);
+    }
+
+    @Benchmark
+    public Object findByHashCode() {
+        return Lists.findByHashCode(collection, missingElement);
+    }
+
+    @Benchmark
+    public Object keyByAndGet() {
+        return Lists.keyBy(collection, Inputs.TO_HASH_CODE).get(missingElement.hashCode());
+    }
+
+    @Benchmark
+    public Object groupByAndGet() {
+        return Lists.groupBy(collection, Inputs.HALF_KEY).get(missingElement.hashCode() >>> 1);
+    }
+
+    @Benchmark
+    public boolean any() {
+        return Lists.any(collection, Inputs.NEVER);
+    }
+
+    @Benchmark
+    public boolean all() {
+        return Lists.all(collection, Inputs.ALWAYS);
+    }
+
+    @Benchmark
+    public int count() {
+        return Lists.count(collection, Inputs.IS_EVEN);
+    }
+
+    @Benchmark
+    public int countWhere() {
+        return Lists.countWhere(collection, Inputs.IS_EVEN_PREDICATE);
+    }
+
+    @Benchmark
+    public int minOfInt() {
+        return Lists.minOfInt(collection, Inputs.INT_HASH_CODE);
+    }
+
+    @Benchmark
+    public int maxOfInt() {
+        return Lists.maxOfInt(collection, Inputs.INT_HASH_CODE);
+    }
+
+    @Benchmark
+    public int sumOfInt() {
+        return Lists.sumOfInt(collection, Inputs.INT_HASH_CODE);
+    }
+
+    @Benchmark
+    public long minOfLong() {
+        return Lists.minOfLong(collection, Inputs.LONG_HASH_CODE);
+    }
+
+    @Benchmark
+    public long maxOfLong() {
+        return Lists.maxOfLong(collection, Inputs.LONG_HASH_CODE);
+    }
+
+    @Benchmark
+    public long sumOfLong() {
+        return Lists.sumOfLong(collection, Inputs.LONG_HASH_CODE);
+    }
+
+    @Benchmark
+    public double minOfDouble() {
+        return Lists.minOfDouble(collection, Inputs.DOUBLE_HASH_CODE);
+    }
+
+    @Benchmark
+    public double maxOfDouble() {
+        return Lists.maxOfDouble(collection, Inputs.DOUBLE_HASH_CODE);
+    }
+
+    @Benchmark
+    public double sumOfDouble() {
+        return Lists.sumOfDouble(collection, Inputs.DOUBLE_HASH_CODE);
+    }
+
+    @Benchmark
+    public String join() {
+        return Lists.join(",", collection);
+    }
+
+    @Benchmark
+    public StringBuilder joinIntoReusedBuilder() {
+        builder.setLength(0);
+        return Lists.join(builder, ",", collection);
+    }
+
+    @Benchmark
+    public Set<Object> zipUnique() {
+        return Lists.zipUnique(collection, collection);
+    }
+
+    @Benchmark
+    public String reduceToString() {
+        return Lists.reduceToString(collection, Inputs.TO_STRING);
+    }
+
+    @Benchmark
+    public StringBuilder reduceToStringIntoReusedBuilder() {
+        builder.setLength(0);
+        return Lists.reduceToString(collection, Inputs.TO_STRING, builder);
+    }
+
+    @Benchmark
+    public Object maxBy() {
+        return Lists.maxBy(collection, Inputs.HASH_CODE_ORDER);
+    }
+
+    @Benchmark
+    public List<Object> topK() {
+        return Lists.topK(collection, TOP_K, Inputs.HASH_CODE_ORDER);
+    }
+
+    @Benchmark
+    public List<Object> topKByInt() {
+        return Lists.topKByInt(collection, TOP_K, Inputs.INT_HASH_CODE);
+    }
+
+    @Benchmark
+    public Object median() {
+        return Lists.median(collection, Inputs.HASH_CODE_ORDER);
+    }
+
+    @Benchmark
+    public int distinctCountWithSet() {
+        return Lists.distinctBy(collection, Inputs.HALF_KEY).size();
+    }
+
+    @Benchmark
+    public long approxDistinctCount() {
+        return Lists.approxDistinctCount(collection, Inputs.HALF_KEY);
+    }
+}
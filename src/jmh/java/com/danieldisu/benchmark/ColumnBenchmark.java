@@ -0,0 +1,105 @@
+package com.danieldisu.benchmark;
+
+import com.danieldisu.IntColumn;
+import com.danieldisu.Lists;
+import com.danieldisu.functions.IntFunc1;
+import com.danieldisu.functions.IntPredicate;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares aggregating a List of Integers with Lists against the same values in a heap and a direct IntColumn.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ColumnBenchmark {
+
+    private static final IntPredicate IS_EVEN = new IntPredicate() {
+        @Override
+        public boolean call(int value) {
+            return value % 2 == 0;
+        }
+    };
+
+    private static final IntFunc1<Integer> INT_VALUE = new IntFunc1<Integer>() {
+        @Override
+        public int call(Integer value) {
+            return value;
+        }
+    };
+
+    @Param({"1000", "100000", "10000000"})
+    public int size;
+
+    private List<Integer> list;
+    private IntColumn heapColumn;
+    private IntColumn directColumn;
+
+    @Setup
+    public void setUp() {
+        list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(i);
+        }
+        heapColumn = IntColumn.fromIntegers(list);
+        directColumn = heapColumn.toDirect();
+    }
+
+    @Benchmark
+    public int sumList() {
+        return Lists.sum(list);
+    }
+
+    @Benchmark
+    public long sumHeapColumn() {
+        return heapColumn.sum();
+    }
+
+    @Benchmark
+    public long sumDirectColumn() {
+        return directColumn.sum();
+    }
+
+    @Benchmark
+    public int maxList() {
+        return Lists.maxOfInt(list, INT_VALUE);
+    }
+
+    @Benchmark
+    public int maxHeapColumn() {
+        return heapColumn.max();
+    }
+
+    @Benchmark
+    public int maxDirectColumn() {
+        return directColumn.max();
+    }
+
+    @Benchmark
+    public int countHeapColumn() {
+        return heapColumn.count(IS_EVEN);
+    }
+
+    @Benchmark
+    public int countDirectColumn() {
+        return directColumn.count(IS_EVEN);
+    }
+}
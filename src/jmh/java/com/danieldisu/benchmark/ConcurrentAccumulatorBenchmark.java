@@ -0,0 +1,81 @@
+package com.danieldisu.benchmark;
+
+import com.danieldisu.Lists;
+import com.danieldisu.StripedLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares several threads adding to a shared counter and a shared set: a synchronized counter, an AtomicLong and a
+ * StripedLong, and a synchronized HashSet against Lists.concurrentSet.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+public class ConcurrentAccumulatorBenchmark {
+
+    private static final int DISTINCT_VALUES = 10000;
+
+    private final Object lock = new Object();
+    private long synchronizedCount;
+    private AtomicLong atomicCount;
+    private StripedLong stripedCount;
+    private Set<Integer> synchronizedSet;
+    private Set<Integer> concurrentSet;
+
+    @Setup
+    public void setUp() {
+        atomicCount = new AtomicLong();
+        stripedCount = new StripedLong();
+        synchronizedSet = Collections.synchronizedSet(new HashSet<Integer>());
+        concurrentSet = Lists.concurrentSet(DISTINCT_VALUES);
+    }
+
+    @Benchmark
+    public void incrementSynchronized() {
+        synchronized (lock) {
+            synchronizedCount++;
+        }
+    }
+
+    @Benchmark
+    public void incrementAtomicLong() {
+        atomicCount.incrementAndGet();
+    }
+
+    @Benchmark
+    public void incrementStripedLong() {
+        stripedCount.increment();
+    }
+
+    @Benchmark
+    public boolean addToSynchronizedSet() {
+        return synchronizedSet.add(ThreadLocalRandom.current().nextInt(DISTINCT_VALUES));
+    }
+
+    @Benchmark
+    public boolean addToConcurrentSet() {
+        return concurrentSet.add(ThreadLocalRandom.current().nextInt(DISTINCT_VALUES));
+    }
+}
@@ -0,0 +1,89 @@
+package com.danieldisu.benchmark;
+
+import com.danieldisu.GroupAggregator;
+import com.danieldisu.Lists;
+import com.danieldisu.ParallelLists;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import rx.functions.Func1;
+
+/**
+ * Compares computing the count, sum and minimum of each group by filtering the list once per key against computing
+ * them in a single pass with a GroupAggregator, sequentially and in parallel.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class GroupAggregatorBenchmark {
+
+    private static final int KEYS = 16;
+
+    private static final Func1<Object, Integer> KEY = new Func1<Object, Integer>() {
+        @Override
+        public Integer call(Object element) {
+            return element.hashCode() % KEYS;
+        }
+    };
+
+    @Param({"1000", "100000", "10000000"})
+    public int size;
+
+    private List<Object> list;
+    private GroupAggregator<Object, Integer> aggregator;
+
+    @Setup
+    public void setUp() {
+        list = (List<Object>) Inputs.collection(Inputs.ARRAY_LIST, Inputs.INTEGER, size);
+
+        GroupAggregator.Builder<Object, Integer> builder = GroupAggregator.builder(KEY).expectedGroups(KEYS);
+        builder.count();
+        builder.sumOfInt(Inputs.INT_HASH_CODE);
+        builder.minOfInt(Inputs.INT_HASH_CODE);
+        aggregator = builder.build();
+    }
+
+    @Benchmark
+    public void filterPerKey(Blackhole blackhole) {
+        for (int key = 0; key < KEYS; key++) {
+            final int currentKey = key;
+            List<Object> group = Lists.filter(list, new Func1<Object, Boolean>() {
+                @Override
+                public Boolean call(Object element) {
+                    return KEY.call(element) == currentKey;
+                }
+            });
+            blackhole.consume(group.size());
+            blackhole.consume(Lists.sumOfInt(group, Inputs.INT_HASH_CODE));
+            blackhole.consume(Lists.minOfInt(group, Inputs.INT_HASH_CODE));
+        }
+    }
+
+    @Benchmark
+    public Map<Integer, GroupAggregator.Aggregates> singlePass() {
+        return aggregator.aggregate(list);
+    }
+
+    @Benchmark
+    public Map<Integer, GroupAggregator.Aggregates> singlePassParallel() {
+        return aggregator.aggregate(list, ParallelLists.defaultInstance());
+    }
+}
@@ -0,0 +1,214 @@
+package com.danieldisu.benchmark;
+
+import com.danieldisu.functions.DoubleFunc1;
+import com.danieldisu.functions.IntFunc1;
+import com.danieldisu.functions.LongFunc1;
+import com.danieldisu.functions.Predicate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+
+import rx.functions.Func1;
+import rx.functions.Func2;
+
+/**
+ * Builds the inputs used by the benchmarks and holds the functions passed to Lists, the functions are shared
+ * instances so the benchmarks do not measure their allocation.
+ */
+final class Inputs {
+
+    static final String ARRAY_LIST = "ArrayList";
+    static final String LINKED_LIST = "LinkedList";
+    static final String HASH_SET = "HashSet";
+
+    static final String INTEGER = "Integer";
+    static final String STRING = "String";
+
+    static final Func1<Object, Object> TO_HASH_CODE = new Func1<Object, Object>() {
+        @Override
+        public Object call(Object element) {
+            return element.hashCode();
+        }
+    };
+
+    static final Func2<Object, Integer, Object> TO_HASH_CODE_PLUS_INDEX = new Func2<Object, Integer, Object>() {
+        @Override
+        public Object call(Object element, Integer index) {
+            return element.hashCode() + index;
+        }
+    };
+
+    static final Func1<Object, Object> EVEN_OR_NULL = new Func1<Object, Object>() {
+        @Override
+        public Object call(Object element) {
+            return (element.hashCode() & 1) == 0 ? element : null;
+        }
+    };
+
+    static final Func1<Object, Object> ALWAYS_NULL = new Func1<Object, Object>() {
+        @Override
+        public Object call(Object element) {
+            return null;
+        }
+    };
+
+    static final Func1<Object, Object> HALF_KEY = new Func1<Object, Object>() {
+        @Override
+        public Object call(Object element) {
+            return element.hashCode() >>> 1;
+        }
+    };
+
+    static final Func1<Object, Boolean> IS_EVEN = new Func1<Object, Boolean>() {
+        @Override
+        public Boolean call(Object element) {
+            return (element.hashCode() & 1) == 0;
+        }
+    };
+
+    static final Predicate<Object> IS_EVEN_PREDICATE = new Predicate<Object>() {
+        @Override
+        public boolean call(Object element) {
+            return (element.hashCode() & 1) == 0;
+        }
+    };
+
+    static final Func1<Object, Boolean> NEVER = new Func1<Object, Boolean>() {
+        @Override
+        public Boolean call(Object element) {
+            return false;
+        }
+    };
+
+    static final Func1<Object, Boolean> ALWAYS = new Func1<Object, Boolean>() {
+        @Override
+        public Boolean call(Object element) {
+            return true;
+        }
+    };
+
+    static final Func1<Object, Integer> HASH_CODE = new Func1<Object, Integer>() {
+        @Override
+        public Integer call(Object element) {
+            return element.hashCode();
+        }
+    };
+
+    static final IntFunc1<Object> INT_HASH_CODE = new IntFunc1<Object>() {
+        @Override
+        public int call(Object element) {
+            return element.hashCode();
+        }
+    };
+
+    static final LongFunc1<Object> LONG_HASH_CODE = new LongFunc1<Object>() {
+        @Override
+        public long call(Object element) {
+            return element.hashCode();
+        }
+    };
+
+    static final DoubleFunc1<Object> DOUBLE_HASH_CODE = new DoubleFunc1<Object>() {
+        @Override
+        public double call(Object element) {
+            return element.hashCode();
+        }
+    };
+
+    static final Func1<BigDecimal, BigDecimal> BIG_DECIMAL_IDENTITY = new Func1<BigDecimal, BigDecimal>() {
+        @Override
+        public BigDecimal call(BigDecimal element) {
+            return element;
+        }
+    };
+
+    static final Func1<Object, List<Object>> TO_PAIR = new Func1<Object, List<Object>>() {
+        @Override
+        public List<Object> call(Object element) {
+            List<Object> pair = new ArrayList<>(2);
+            pair.add(element);
+            pair.add(element);
+            return pair;
+        }
+    };
+
+    static final Func1<Object, Collection<Object>> TO_SINGLETON = new Func1<Object, Collection<Object>>() {
+        @Override
+        public Collection<Object> call(Object element) {
+            return Collections.singletonList(element);
+        }
+    };
+
+    static final Comparator<Integer> NATURAL_ORDER = new Comparator<Integer>() {
+        @Override
+        public int compare(Integer integer1, Integer integer2) {
+            return integer1.compareTo(integer2);
+        }
+    };
+
+    static final Comparator<Object> HASH_CODE_ORDER = new Comparator<Object>() {
+        @Override
+        public int compare(Object element1, Object element2) {
+            int hashCode1 = element1.hashCode();
+            int hashCode2 = element2.hashCode();
+            return hashCode1 < hashCode2 ? -1 : (hashCode1 == hashCode2 ? 0 : 1);
+        }
+    };
+
+    static final Func1<Object, String> TO_STRING = new Func1<Object, String>() {
+        @Override
+        public String call(Object element) {
+            return element.toString();
+        }
+    };
+
+    private Inputs() {
+    }
+
+    static Object element(String elementType, int index) {
+        if (INTEGER.equals(elementType)) return index;
+        if (STRING.equals(elementType)) return "element-" + index;
+        throw new IllegalArgumentException("Unknown element type " + elementType);
+    }
+
+    static Collection<Object> collection(String collectionType, String elementType, int size) {
+        Collection<Object> collection = emptyCollection(collectionType, size);
+        for (int i = 0; i < size; i++) {
+            collection.add(element(elementType, i));
+        }
+        return collection;
+    }
+
+    static List<Integer> integers(String collectionType, int size) {
+        List<Integer> integers = LINKED_LIST.equals(collectionType) ? new LinkedList<Integer>() : new ArrayList<Integer>(size);
+        for (int i = 0; i < size; i++) {
+            integers.add(i);
+        }
+        return integers;
+    }
+
+    static List<BigDecimal> bigDecimals(String collectionType, int size) {
+        return bigDecimals(collectionType, size, 2);
+    }
+
+    static List<BigDecimal> bigDecimals(String collectionType, int size, int scale) {
+        List<BigDecimal> decimals = LINKED_LIST.equals(collectionType) ? new LinkedList<BigDecimal>() : new ArrayList<BigDecimal>(size);
+        for (int i = 0; i < size; i++) {
+            decimals.add(BigDecimal.valueOf(i, scale));
+        }
+        return decimals;
+    }
+
+    private static Collection<Object> emptyCollection(String collectionType, int size) {
+        if (ARRAY_LIST.equals(collectionType)) return new ArrayList<>(size);
+        if (LINKED_LIST.equals(collectionType)) return new LinkedList<>();
+        if (HASH_SET.equals(collectionType)) return new HashSet<>(size * 2);
+        throw new IllegalArgumentException("Unknown collection type " + collectionType);
+    }
+}
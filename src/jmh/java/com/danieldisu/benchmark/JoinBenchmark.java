@@ -0,0 +1,102 @@
+package com.danieldisu.benchmark;
+
+import com.danieldisu.Lists;
+import com.danieldisu.ParallelLists;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import rx.functions.Func1;
+import rx.functions.Func2;
+
+/**
+ * Compares joining each order with its customer by looking it up with Lists.find against the hash joins. There is one
+ * customer per ten orders and every order has a customer. The sizes are small because the lookup is O(n * m).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JoinBenchmark {
+
+    private static final int ORDERS_PER_CUSTOMER = 10;
+
+    private static final Func1<Object, Object> IDENTITY = new Func1<Object, Object>() {
+        @Override
+        public Object call(Object element) {
+            return element;
+        }
+    };
+
+    private static final Func2<Object, Object, Object> SECOND = new Func2<Object, Object, Object>() {
+        @Override
+        public Object call(Object order, Object customer) {
+            return customer;
+        }
+    };
+
+    @Param({"100", "1000", "10000"})
+    public int size;
+
+    private List<Object> orders;
+    private List<Object> customers;
+    private Func1<Object, Object> customerOfOrder;
+
+    @Setup
+    public void setUp() {
+        final int customerCount = Math.max(1, size / ORDERS_PER_CUSTOMER);
+        orders = new ArrayList<>(Inputs.collection(Inputs.ARRAY_LIST, Inputs.INTEGER, size));
+        customers = new ArrayList<>(Inputs.collection(Inputs.ARRAY_LIST, Inputs.INTEGER, customerCount));
+        customerOfOrder = new Func1<Object, Object>() {
+            @Override
+            public Object call(Object order) {
+                return order.hashCode() % customerCount;
+            }
+        };
+    }
+
+    @Benchmark
+    public List<Object> nestedFind() {
+        return Lists.map(orders, new Func1<Object, Object>() {
+            @Override
+            public Object call(final Object order) {
+                return Lists.find(customers, new Func1<Object, Boolean>() {
+                    @Override
+                    public Boolean call(Object customer) {
+                        return customer.equals(customerOfOrder.call(order));
+                    }
+                });
+            }
+        });
+    }
+
+    @Benchmark
+    public List<Object> innerJoin() {
+        return Lists.innerJoin(orders, customers, customerOfOrder, IDENTITY, SECOND);
+    }
+
+    @Benchmark
+    public List<Object> innerJoinParallel() {
+        return ParallelLists.defaultInstance().innerJoin(orders, customers, customerOfOrder, IDENTITY, SECOND);
+    }
+
+    @Benchmark
+    public List<Object> semiJoin() {
+        return Lists.semiJoin(orders, customers, customerOfOrder, IDENTITY);
+    }
+}
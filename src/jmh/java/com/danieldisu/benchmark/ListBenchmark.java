@@ -0,0 +1,231 @@
+package com.danieldisu.benchmark;
+
+import com.danieldisu.Lists;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the Lists functions that only accept a List, so they are run against an ArrayList and a LinkedList.
+ * Searching functions are given a predicate that never matches so they always traverse the whole input.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ListBenchmark {
+
+    private static final int UNSHIFTS_IN_LOOP = 100;
+
+    @Param({"10", "1000", "100000", "10000000"})
+    public int size;
+
+    @Param({Inputs.ARRAY_LIST, Inputs.LINKED_LIST})
+    public String listType;
+
+    @Param({Inputs.INTEGER, Inputs.STRING})
+    public String elementType;
+
+    private List<Object> list;
+    private List<Object> otherList;
+    private Object[] array;
+    private List<Integer> integers;
+    private List<Integer> otherIntegers;
+    private List<BigDecimal> bigDecimals;
+    private List<BigDecimal> wholeBigDecimals;
+    private ArrayList<Object> mergeDestination;
+
+    @Setup
+    public void setUp() {
+        list = (List<Object>) Inputs.collection(listType, elementType, size);
+        otherList = Inputs.LINKED_LIST.equals(listType) ? new LinkedList<>(list) : new ArrayList<>(list);
+        array = list.toArray();
+        integers = Inputs.integers(listType, size);
+        otherIntegers = Inputs.integers(listType, size);
+        bigDecimals = Inputs.bigDecimals(listType, size);
+        wholeBigDecimals = Inputs.bigDecimals(listType, size, 0);
+        mergeDestination = new ArrayList<>(size * 2);
+    }
+
+    @Benchmark
+    public List<Object> mapOrdered() {
+        return Lists.mapOrdered(list, Inputs.TO_HASH_CODE_PLUS_INDEX);
+    }
+
+    @Benchmark
+    public List<Object> mapOrderedArray() {
+        return Lists.mapOrderedArray(array, Inputs.TO_HASH_CODE_PLUS_INDEX);
+    }
+
+    @Benchmark
+    public List<Object> mapArray() {
+        return Lists.mapArray(array, Inputs.TO_HASH_CODE);
+    }
+
+    @Benchmark
+    public List<Object> filterArray() {
+        return Lists.filterArray(array, Inputs.IS_EVEN);
+    }
+
+    @Benchmark
+    public Set<Object> flatMapUnique() {
+        return Lists.flatMapUnique(list, Inputs.TO_SINGLETON);
+    }
+
+    @Benchmark
+    public List<Object> distinct() {
+        return Lists.distinct(list);
+    }
+
+    @Benchmark
+    public int indexOf() {
+        return Lists.indexOf(list, Inputs.NEVER);
+    }
+
+    @Benchmark
+    public int indexOfArray() {
+        return Lists.indexOfArray(array, Inputs.NEVER);
+    }
+
+    @Benchmark
+    public List<Object> diff() {
+        return Lists.diff(list, Inputs.HALF_KEY);
+    }
+
+    @Benchmark
+    public Object firstMatching() {
+        return Lists.first(list, Inputs.NEVER);
+    }
+
+    @Benchmark
+    public Object first() {
+        return Lists.first(list);
+    }
+
+    @Benchmark
+    public int minInt() {
+        return Lists.minInt(list, Inputs.HASH_CODE);
+    }
+
+    @Benchmark
+    public int min() {
+        return Lists.min(list, Inputs.HASH_CODE);
+    }
+
+    @Benchmark
+    public int maxInt() {
+        return Lists.maxInt(list, Inputs.HASH_CODE);
+    }
+
+    @Benchmark
+    public int sumWithFunction() {
+        return Lists.sum(list, Inputs.HASH_CODE);
+    }
+
+    @Benchmark
+    public int sum() {
+        return Lists.sum(integers);
+    }
+
+    @Benchmark
+    public BigDecimal minBigDecimal() {
+        return Lists.minBigDecimal(bigDecimals, Inputs.BIG_DECIMAL_IDENTITY);
+    }
+
+    @Benchmark
+    public BigDecimal maxBigDecimal() {
+        return Lists.maxBigDecimal(bigDecimals, Inputs.BIG_DECIMAL_IDENTITY);
+    }
+
+    @Benchmark
+    public BigDecimal sumBigDecimal() {
+        return Lists.sumBigDecimal(bigDecimals, Inputs.BIG_DECIMAL_IDENTITY);
+    }
+
+    @Benchmark
+    public BigDecimal sumWholeBigDecimal() {
+        return Lists.sumBigDecimal(wholeBigDecimals, Inputs.BIG_DECIMAL_IDENTITY);
+    }
+
+    @Benchmark
+    public List<String> toListString() {
+        return Lists.toListString(list);
+    }
+
+    @Benchmark
+    public List<Object> of() {
+        return Lists.of(array);
+    }
+
+    @Benchmark
+    public List<Object> unshift() {
+        return Lists.unshift(list, array[0]);
+    }
+
+    @Benchmark
+    public List<Object> unshiftView() {
+        return Lists.unshiftView(list, array[0]);
+    }
+
+    @Benchmark
+    public List<Object> unshiftViewInLoop() {
+        List<Object> result = list;
+        for (int i = 0; i < UNSHIFTS_IN_LOOP; i++) {
+            result = Lists.unshiftView(result, array[0]);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<Object> merge() {
+        return Lists.merge(list, otherList);
+    }
+
+    @Benchmark
+    public List<Object> mergeView() {
+        return Lists.mergeView(list, otherList);
+    }
+
+    @Benchmark
+    public int iterateMergeView() {
+        int count = 0;
+        for (Object element : Lists.mergeView(list, otherList)) {
+            if (element != null) count++;
+        }
+        return count;
+    }
+
+    @Benchmark
+    public List<Integer> mergeSorted() {
+        return Lists.mergeSorted(Inputs.NATURAL_ORDER, integers, otherIntegers);
+    }
+
+    @Benchmark
+    public List<Integer> intersectSorted() {
+        return Lists.intersectSorted(integers, otherIntegers, Inputs.NATURAL_ORDER);
+    }
+
+    @Benchmark
+    public List<Object> mergeIntoReusedList() {
+        mergeDestination.clear();
+        return Lists.mergeInto(mergeDestination, list, otherList);
+    }
+}
@@ -0,0 +1,76 @@
+package com.danieldisu.benchmark;
+
+import com.danieldisu.Lists;
+import com.danieldisu.LiveList;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares replacing one element and computing the sum, minimum and maximum again over the whole list against
+ * replacing it in a LiveList that keeps them up to date.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class LiveListBenchmark {
+
+    @Param({"1000", "100000", "10000000"})
+    public int size;
+
+    private List<Object> list;
+    private LiveList<Object> liveList;
+    private LiveList.Aggregate sum;
+    private LiveList.Aggregate min;
+    private LiveList.Aggregate max;
+    private int nextIndex;
+
+    @Setup
+    public void setUp() {
+        list = new ArrayList<>(Inputs.collection(Inputs.ARRAY_LIST, Inputs.INTEGER, size));
+        liveList = LiveList.of(list);
+        sum = liveList.sumOfInt(Inputs.INT_HASH_CODE);
+        min = liveList.minOfInt(Inputs.INT_HASH_CODE);
+        max = liveList.maxOfInt(Inputs.INT_HASH_CODE);
+    }
+
+    @Benchmark
+    public void setAndRecompute(Blackhole blackhole) {
+        int index = nextIndex();
+        list.set(index, index + 1);
+        blackhole.consume(Lists.sumOfInt(list, Inputs.INT_HASH_CODE));
+        blackhole.consume(Lists.minOfInt(list, Inputs.INT_HASH_CODE));
+        blackhole.consume(Lists.maxOfInt(list, Inputs.INT_HASH_CODE));
+    }
+
+    @Benchmark
+    public void setLive(Blackhole blackhole) {
+        int index = nextIndex();
+        liveList.set(index, index + 1);
+        blackhole.consume(sum.get());
+        blackhole.consume(min.get());
+        blackhole.consume(max.get());
+    }
+
+    private int nextIndex() {
+        nextIndex = nextIndex + 1 == size ? 0 : nextIndex + 1;
+        return nextIndex;
+    }
+}
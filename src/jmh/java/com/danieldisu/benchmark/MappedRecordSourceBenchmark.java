@@ -0,0 +1,96 @@
+package com.danieldisu.benchmark;
+
+import com.danieldisu.Lists;
+import com.danieldisu.MappedRecordSource;
+import com.danieldisu.ParallelLists;
+import com.danieldisu.functions.Predicate;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares counting the matching lines of a file read into a list against counting them in a MappedRecordSource,
+ * sequentially and in parallel.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MappedRecordSourceBenchmark {
+
+    private static final Predicate<String> ENDS_WITH_SEVEN_STRING = new Predicate<String>() {
+        @Override
+        public boolean call(String line) {
+            return line.endsWith("7");
+        }
+    };
+
+    private static final Predicate<ByteBuffer> ENDS_WITH_SEVEN = new Predicate<ByteBuffer>() {
+        @Override
+        public boolean call(ByteBuffer record) {
+            return record.limit() > 0 && record.get(record.limit() - 1) == '7';
+        }
+    };
+
+    @Param({"1000", "100000", "10000000"})
+    public int lines;
+
+    private File file;
+    private MappedRecordSource source;
+
+    @Setup
+    public void setUp() throws IOException {
+        file = File.createTempFile("records", ".txt");
+        PrintWriter writer = new PrintWriter(file, "US-ASCII");
+        try {
+            for (int i = 0; i < lines; i++) {
+                writer.print("record-");
+                writer.print(i);
+                writer.print('\n');
+            }
+        } finally {
+            writer.close();
+        }
+        source = MappedRecordSource.newlineDelimited(file);
+    }
+
+    @TearDown
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Benchmark
+    public int countReadIntoList() throws IOException {
+        return Lists.countWhere(Files.readAllLines(file.toPath(), StandardCharsets.US_ASCII), ENDS_WITH_SEVEN_STRING);
+    }
+
+    @Benchmark
+    public long countMapped() {
+        return source.countWhere(ENDS_WITH_SEVEN);
+    }
+
+    @Benchmark
+    public long countMappedParallel() {
+        return source.countWhere(ParallelLists.defaultInstance(), ENDS_WITH_SEVEN);
+    }
+}
@@ -0,0 +1,83 @@
+package com.danieldisu.benchmark;
+
+import com.danieldisu.Lists;
+import com.danieldisu.ParallelLists;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the parallel operations with different split thresholds, threshold 0 runs the sequential Lists version.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ParallelListsBenchmark {
+
+    @Param({"1000", "100000", "10000000"})
+    public int size;
+
+    @Param({Inputs.ARRAY_LIST, Inputs.LINKED_LIST})
+    public String collectionType;
+
+    @Param({"0", "1024", "16384"})
+    public int threshold;
+
+    private Collection<Object> collection;
+    private ForkJoinPool pool;
+    private ParallelLists parallelLists;
+
+    @Setup
+    public void setUp() {
+        collection = Inputs.collection(collectionType, Inputs.INTEGER, size);
+        pool = new ForkJoinPool();
+        parallelLists = threshold == 0 ? null : Lists.parallel(pool, threshold);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public List<Object> map() {
+        if (parallelLists == null) return Lists.map(collection, Inputs.TO_HASH_CODE);
+        return parallelLists.map(collection, Inputs.TO_HASH_CODE);
+    }
+
+    @Benchmark
+    public List<Object> filter() {
+        if (parallelLists == null) return Lists.filter(collection, Inputs.IS_EVEN);
+        return parallelLists.filter(collection, Inputs.IS_EVEN);
+    }
+
+    @Benchmark
+    public int sumOfInt() {
+        if (parallelLists == null) return Lists.sumOfInt(collection, Inputs.INT_HASH_CODE);
+        return parallelLists.sumOfInt(collection, Inputs.INT_HASH_CODE);
+    }
+
+    @Benchmark
+    public boolean any() {
+        if (parallelLists == null) return Lists.any(collection, Inputs.NEVER);
+        return parallelLists.any(collection, Inputs.NEVER);
+    }
+}
@@ -0,0 +1,68 @@
+package com.danieldisu.benchmark;
+
+import com.danieldisu.Lists;
+import com.danieldisu.Sequence;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a filter, map and findMap chain done with Lists against the same chain done with a Sequence.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SequenceBenchmark {
+
+    @Param({"10", "1000", "100000", "10000000"})
+    public int size;
+
+    @Param({Inputs.ARRAY_LIST, Inputs.LINKED_LIST, Inputs.HASH_SET})
+    public String collectionType;
+
+    private Collection<Object> collection;
+
+    @Setup
+    public void setUp() {
+        collection = Inputs.collection(collectionType, Inputs.INTEGER, size);
+    }
+
+    @Benchmark
+    public Object eagerChain() {
+        List<Object> filtered = Lists.filter(collection, Inputs.IS_EVEN);
+        List<Object> mapped = Lists.map(filtered, Inputs.TO_HASH_CODE);
+        return Lists.findMap(mapped, Inputs.ALWAYS_NULL);
+    }
+
+    @Benchmark
+    public Object lazyChain() {
+        return Sequence.from(collection)
+                .filter(Inputs.IS_EVEN)
+                .map(Inputs.TO_HASH_CODE)
+                .findMap(Inputs.ALWAYS_NULL);
+    }
+
+    @Benchmark
+    public List<Object> lazyToList() {
+        return Sequence.from(collection)
+                .filter(Inputs.IS_EVEN)
+                .map(Inputs.TO_HASH_CODE)
+                .toList();
+    }
+}
@@ -0,0 +1,98 @@
+package com.danieldisu.benchmark;
+
+import com.danieldisu.Lists;
+import com.danieldisu.ParallelLists;
+import com.danieldisu.functions.IntFunc1;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import rx.functions.Func1;
+
+/**
+ * Compares sorting by a computed key, the number parsed from each string, with a comparator that computes the keys on
+ * every comparison against the sortBy functions, which compute each key once. The elements are shuffled so the input
+ * is not already sorted.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SortBenchmark {
+
+    private static final long SHUFFLE_SEED = 42;
+
+    private static final int NUMBER_START = "element-".length();
+
+    private static final Func1<Object, Integer> NUMBER = new Func1<Object, Integer>() {
+        @Override
+        public Integer call(Object element) {
+            return Integer.parseInt(element.toString().substring(NUMBER_START));
+        }
+    };
+
+    private static final IntFunc1<Object> INT_NUMBER = new IntFunc1<Object>() {
+        @Override
+        public int call(Object element) {
+            return Integer.parseInt(element.toString().substring(NUMBER_START));
+        }
+    };
+
+    private static final Comparator<Object> BY_NUMBER = new Comparator<Object>() {
+        @Override
+        public int compare(Object element1, Object element2) {
+            return NUMBER.call(element1).compareTo(NUMBER.call(element2));
+        }
+    };
+
+    @Param({"1000", "100000", "5000000"})
+    public int size;
+
+    private List<Object> list;
+
+    @Setup
+    public void setUp() {
+        list = new ArrayList<>(Inputs.collection(Inputs.ARRAY_LIST, Inputs.STRING, size));
+        Collections.shuffle(list, new Random(SHUFFLE_SEED));
+    }
+
+    @Benchmark
+    public List<Object> sortWithKeyComparator() {
+        List<Object> sorted = new ArrayList<>(list);
+        Collections.sort(sorted, BY_NUMBER);
+        return sorted;
+    }
+
+    @Benchmark
+    public List<Object> sortBy() {
+        return Lists.sortBy(list, NUMBER);
+    }
+
+    @Benchmark
+    public List<Object> sortByInt() {
+        return Lists.sortByInt(list, INT_NUMBER);
+    }
+
+    @Benchmark
+    public List<Object> sortByParallel() {
+        return ParallelLists.defaultInstance().sortBy(list, NUMBER);
+    }
+}
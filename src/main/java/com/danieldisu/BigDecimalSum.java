@@ -0,0 +1,130 @@
+package com.danieldisu;
+
+import java.math.BigDecimal;
+
+/**
+ * Exact sum of BigDecimals that replaces the BigDecimal created by each BigDecimal.add with a long addition. While the
+ * values fit, the sum is kept as an unscaled long at the biggest scale seen so far, and it falls back to BigDecimal.add
+ * when a value or the sum does not fit in a long anymore. Values with scale 0 are added without creating any object,
+ * values with another scale still create one rescaled copy to read their unscaled value.
+ * <p>
+ * The result is identical, value and scale, to adding the values one by one to BigDecimal.ZERO.
+ */
+public final class BigDecimalSum {
+
+    private static final int MAX_LONG_DIGITS = 18;
+    private static final long[] POWERS_OF_TEN = new long[MAX_LONG_DIGITS + 1];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private long unscaledSum;
+    private int scale;
+    private BigDecimal overflowedSum;
+
+    /**
+     * Adds the value to the sum
+     *
+     * @param value -
+     * @return this sum
+     */
+    public BigDecimalSum add(BigDecimal value) {
+        if (overflowedSum != null) {
+            overflowedSum = overflowedSum.add(value);
+            return this;
+        }
+
+        // a value with at most 18 digits always fits in a long, and scaling it to scale 0 keeps the unscaled value
+        if (value.precision() > MAX_LONG_DIGITS) {
+            overflow(value);
+            return this;
+        }
+
+        // longValueExact reads the unscaled value of a scale 0 value without creating anything, other scales need a
+        // rescaled copy to read it
+        int valueScale = value.scale();
+        long unscaledValue = valueScale == 0
+                ? value.longValueExact()
+                : value.scaleByPowerOfTen(valueScale).longValueExact();
+        add(unscaledValue, valueScale, value);
+        return this;
+    }
+
+    /**
+     * Adds the result of another sum to this one, used to merge partial sums
+     *
+     * @param other -
+     * @return this sum
+     */
+    public BigDecimalSum add(BigDecimalSum other) {
+        if (other.overflowedSum != null) return add(other.overflowedSum);
+
+        if (overflowedSum != null) {
+            overflowedSum = overflowedSum.add(other.sum());
+            return this;
+        }
+
+        add(other.unscaledSum, other.scale, null);
+        return this;
+    }
+
+    /**
+     * @return the sum of the values added so far
+     */
+    public BigDecimal sum() {
+        if (overflowedSum != null) return overflowedSum;
+        return BigDecimal.valueOf(unscaledSum, scale);
+    }
+
+    private void add(long unscaledValue, int valueScale, BigDecimal value) {
+        if (valueScale > scale) {
+            long rescaledSum = multiplyByPowerOfTen(unscaledSum, valueScale - scale);
+            if (rescaledSum == Long.MIN_VALUE) {
+                overflow(unscaledValue, valueScale, value);
+                return;
+            }
+            unscaledSum = rescaledSum;
+            scale = valueScale;
+        } else if (valueScale < scale) {
+            long rescaledValue = multiplyByPowerOfTen(unscaledValue, scale - valueScale);
+            if (rescaledValue == Long.MIN_VALUE) {
+                overflow(unscaledValue, valueScale, value);
+                return;
+            }
+            unscaledValue = rescaledValue;
+        }
+
+        long result = unscaledSum + unscaledValue;
+        if (((unscaledSum ^ result) & (unscaledValue ^ result)) < 0) {
+            overflow(unscaledValue, scale, value);
+            return;
+        }
+        unscaledSum = result;
+    }
+
+    /**
+     * Returns the value multiplied by 10^power, or Long.MIN_VALUE if the result does not fit in a long. Long.MIN_VALUE
+     * is not a multiple of ten so it can never be a valid result.
+     */
+    private static long multiplyByPowerOfTen(long value, int power) {
+        if (value == 0) return 0;
+        if (power > MAX_LONG_DIGITS) return Long.MIN_VALUE;
+
+        long multiplier = POWERS_OF_TEN[power];
+        long limit = Long.MAX_VALUE / multiplier;
+        if (value > limit || value < -limit) return Long.MIN_VALUE;
+        return value * multiplier;
+    }
+
+    private void overflow(long unscaledValue, int valueScale, BigDecimal value) {
+        overflow(value != null ? value : BigDecimal.valueOf(unscaledValue, valueScale));
+    }
+
+    private void overflow(BigDecimal value) {
+        overflowedSum = BigDecimal.valueOf(unscaledSum, scale).add(value);
+    }
+}
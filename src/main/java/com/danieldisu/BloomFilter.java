@@ -0,0 +1,138 @@
+package com.danieldisu;
+
+import java.util.Arrays;
+
+import javax.annotation.Nullable;
+
+/**
+ * Set of values that only answers whether a value might have been added, in a fixed amount of memory. It never says
+ * that an added value is missing, and says that a missing value might be there with the false positive probability it
+ * was created with, as long as no more values than expected are added. It is useful to discard most of the elements
+ * before an expensive lookup.
+ * <p>
+ * Integral numbers and char sequences are hashed to 64 bits, so the false positive probability holds for tens of
+ * millions of ids or strings. Other objects are hashed from their hashCode, so a missing value with the same hashCode
+ * as an added one is always a false positive. Two filters created with the same parameters can be merged, so they
+ * can be filled in partitions. Not thread safe.
+ */
+public final class BloomFilter {
+
+    private final long[] bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    private BloomFilter(long bitCount, int hashCount) {
+        this.bits = new long[(int) ((bitCount + 63) >>> 6)];
+        this.bitCount = bitCount;
+        this.hashCount = hashCount;
+    }
+
+    /**
+     * Creates an empty filter sized for the given number of values and false positive probability
+     *
+     * @param expectedValues           the number of values that will be added
+     * @param falsePositiveProbability between 0 and 1, exclusive
+     * @return the filter
+     */
+    public static BloomFilter create(long expectedValues, double falsePositiveProbability) {
+        if (expectedValues < 0) throw new IllegalArgumentException("expectedValues must not be negative");
+        if (!(falsePositiveProbability > 0 && falsePositiveProbability < 1)) {
+            throw new IllegalArgumentException("falsePositiveProbability must be between 0 and 1");
+        }
+
+        long values = Math.max(1, expectedValues);
+        double ln2 = Math.log(2);
+        long bitCount = Math.max(64, (long) Math.ceil(-values * Math.log(falsePositiveProbability) / (ln2 * ln2)));
+        if (bitCount > (long) Integer.MAX_VALUE * 64) throw new IllegalArgumentException("The filter is too big");
+
+        int hashCount = Math.max(1, (int) Math.round((double) bitCount / values * ln2));
+        return new BloomFilter(bitCount, hashCount);
+    }
+
+    /**
+     * Adds a value, null is a value too
+     *
+     * @param value -
+     */
+    public void add(@Nullable Object value) {
+        addHash(hashOf(value));
+    }
+
+    /**
+     * Adds a numeric value
+     *
+     * @param value -
+     */
+    public void addLong(long value) {
+        addHash(Hashing.mix(value));
+    }
+
+    /**
+     * @param value -
+     * @return false if the value was never added, true if it probably was
+     */
+    public boolean mightContain(@Nullable Object value) {
+        return mightContainHash(hashOf(value));
+    }
+
+    /**
+     * @param value -
+     * @return false if the value was never added, true if it probably was
+     */
+    public boolean mightContainLong(long value) {
+        return mightContainHash(Hashing.mix(value));
+    }
+
+    /**
+     * Adds the values of another filter to this one
+     *
+     * @param other a filter created with the same parameters
+     * @return this filter
+     */
+    public BloomFilter merge(BloomFilter other) {
+        if (other.bitCount != bitCount || other.hashCount != hashCount) {
+            throw new IllegalArgumentException("Cannot merge filters created with different parameters");
+        }
+
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] |= other.bits[i];
+        }
+        return this;
+    }
+
+    /**
+     * Removes all the values
+     */
+    public void clear() {
+        Arrays.fill(bits, 0);
+    }
+
+    private static long hashOf(@Nullable Object value) {
+        return Hashing.hash(value);
+    }
+
+    /**
+     * The positions of a value are hash1 + i * hash2, which behaves like hashCount independent hashes. hash2 is odd so
+     * the positions are different even when the hash is 0.
+     */
+    private void addHash(long hash) {
+        long hash1 = hash;
+        long hash2 = Hashing.mix(hash) | 1;
+
+        for (int i = 0; i < hashCount; i++) {
+            long bit = ((hash1 + i * hash2) & Long.MAX_VALUE) % bitCount;
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    private boolean mightContainHash(long hash) {
+        long hash1 = hash;
+        long hash2 = Hashing.mix(hash) | 1;
+
+        for (int i = 0; i < hashCount; i++) {
+            long bit = ((hash1 + i * hash2) & Long.MAX_VALUE) % bitCount;
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+}
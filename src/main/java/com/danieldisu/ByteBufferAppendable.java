@@ -0,0 +1,88 @@
+package com.danieldisu;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * Appendable that encodes the appended characters straight into a ByteBuffer with the given charset, used by the
+ * ByteBuffer versions of Lists.join and Lists.reduceToString. The characters that can not be encoded are replaced.
+ */
+class ByteBufferAppendable implements Appendable {
+
+    private final ByteBuffer destination;
+    private final CharsetEncoder encoder;
+    private char pendingHighSurrogate;
+    private boolean hasPendingHighSurrogate;
+
+    ByteBufferAppendable(ByteBuffer destination, Charset charset) {
+        this.destination = destination;
+        this.encoder = charset.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    @Override
+    public Appendable append(CharSequence csq) {
+        return append(csq, 0, csq == null ? 4 : csq.length());
+    }
+
+    @Override
+    public Appendable append(CharSequence csq, int start, int end) {
+        if (csq == null) csq = "null";
+        encode(CharBuffer.wrap(csq, start, end), false);
+        return this;
+    }
+
+    @Override
+    public Appendable append(char c) {
+        encode(CharBuffer.wrap(new char[]{c}), false);
+        return this;
+    }
+
+    /**
+     * Writes the bytes the encoder may still hold, must be called once after the last append
+     */
+    ByteBuffer finish() {
+        encode(CharBuffer.allocate(0), true);
+        check(encoder.flush(destination));
+        return destination;
+    }
+
+    /**
+     * A high surrogate at the end of the chars is not consumed by the encoder until it sees the low surrogate, so it is
+     * kept and encoded in front of the chars of the next append. That way a surrogate pair split between two appends is
+     * encoded as one code point.
+     */
+    private void encode(CharBuffer chars, boolean endOfInput) {
+        if (hasPendingHighSurrogate) {
+            CharBuffer joined = CharBuffer.allocate(chars.remaining() + 1);
+            joined.put(pendingHighSurrogate).put(chars).flip();
+            chars = joined;
+            hasPendingHighSurrogate = false;
+        }
+
+        check(encoder.encode(chars, destination, endOfInput));
+
+        if (chars.hasRemaining()) {
+            pendingHighSurrogate = chars.get();
+            hasPendingHighSurrogate = true;
+        }
+    }
+
+    private static void check(CoderResult result) {
+        if (result.isOverflow()) throw new BufferOverflowException();
+        if (result.isError()) {
+            try {
+                result.throwException();
+            } catch (CharacterCodingException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.danieldisu;
+
+/**
+ * Statistics of a MemoizedFunc1 since it was created
+ */
+public final class CacheStats {
+
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final int size;
+
+    CacheStats(long hits, long misses, long evictions, int size) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.size = size;
+    }
+
+    /**
+     * @return the number of calls that returned a cached result
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return the number of calls that had to call the wrapped function
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return the number of results removed to make room for new ones, not counting the ones of collected weak keys
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * @return the number of cached results
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return the fraction of calls that returned a cached result, 0 if there were no calls
+     */
+    public double getHitRate() {
+        long calls = hits + misses;
+        return calls == 0 ? 0 : (double) hits / calls;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{" +
+                "hits=" + hits +
+                ", misses=" + misses +
+                ", evictions=" + evictions +
+                ", size=" + size +
+                '}';
+    }
+}
@@ -0,0 +1,112 @@
+package com.danieldisu;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+/**
+ * Read only view of several lists one after the other, created by Lists.mergeView. The offset where each list starts
+ * is computed once, so get finds the list of an index with a binary search and the elements are never copied. The
+ * lists must not change their size while the view is used.
+ *
+ * @param <A> The type of the elements
+ */
+class ConcatList<A> extends AbstractList<A> {
+
+    private final List<A>[] parts;
+    private final int[] offsets;
+    private final int size;
+
+    private ConcatList(List<A>[] parts, int[] offsets, int size) {
+        this.parts = parts;
+        this.offsets = offsets;
+        this.size = size;
+    }
+
+    /**
+     * Creates the view, the parts that are views too are flattened so get does not go through several views, and the
+     * view is RandomAccess only if all the parts are
+     */
+    @SuppressWarnings("unchecked")
+    static <A> ConcatList<A> create(List<A>[] lists) {
+        List<List<A>> flattened = new ArrayList<>(lists.length);
+        boolean randomAccess = true;
+
+        for (List<A> list : lists) {
+            if (list.isEmpty()) continue;
+
+            if (list instanceof ConcatList) {
+                flattened.addAll(Arrays.asList(((ConcatList<A>) list).parts));
+            } else {
+                flattened.add(list);
+            }
+            randomAccess &= list instanceof RandomAccess;
+        }
+
+        List<A>[] parts = (List<A>[]) flattened.toArray(new List<?>[flattened.size()]);
+        int[] offsets = new int[parts.length];
+        int size = 0;
+        for (int i = 0; i < parts.length; i++) {
+            offsets[i] = size;
+            size += parts[i].size();
+        }
+
+        return randomAccess
+                ? new RandomAccessConcatList<>(parts, offsets, size)
+                : new ConcatList<>(parts, offsets, size);
+    }
+
+    @Override
+    public A get(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+
+        int part = Arrays.binarySearch(offsets, index);
+        // binarySearch returns -(insertion point) - 1 when the index is not the start of a part
+        if (part < 0) part = -part - 2;
+        return parts[part].get(index - offsets[part]);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Iterator<A> iterator() {
+        return new Iterator<A>() {
+            private int part;
+            private Iterator<A> current = parts.length == 0 ? null : parts[0].iterator();
+
+            @Override
+            public boolean hasNext() {
+                while (current != null && !current.hasNext()) {
+                    part++;
+                    current = part < parts.length ? parts[part].iterator() : null;
+                }
+                return current != null;
+            }
+
+            @Override
+            public A next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                return current.next();
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    private static final class RandomAccessConcatList<A> extends ConcatList<A> implements RandomAccess {
+
+        RandomAccessConcatList(List<A>[] parts, int[] offsets, int size) {
+            super(parts, offsets, size);
+        }
+    }
+}
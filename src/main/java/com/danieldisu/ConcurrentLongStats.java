@@ -0,0 +1,138 @@
+package com.danieldisu;
+
+import com.danieldisu.functions.IntFunc1;
+import com.danieldisu.functions.LongFunc1;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread safe count, sum, minimum and maximum of the values added by several threads, the concurrent version of
+ * Lists.count, sumOfLong, minOfLong and maxOfLong. The count and the sum are StripedLongs and the minimum and maximum
+ * are updated with a CAS only when a value improves them, so no thread takes a lock. Threads that process a shard of
+ * the elements should use addAll, which aggregates the shard locally and publishes it once.
+ * <p>
+ * The results are meant to be read once the producers have finished, a read while they add returns a value that may
+ * miss the adds that are running at the same time.
+ */
+public final class ConcurrentLongStats {
+
+    private final StripedLong count = new StripedLong();
+    private final StripedLong sum = new StripedLong();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+
+    public void add(long value) {
+        publish(1, value, value, value);
+    }
+
+    /**
+     * Adds the value of each element of a shard, the shard is aggregated in the calling thread and the shared state
+     * is updated once
+     *
+     * @param elements -
+     * @param func     -
+     * @param <A>      The type of the elements
+     */
+    public <A> void addAll(Collection<A> elements, LongFunc1<A> func) {
+        if (elements == null || elements.isEmpty()) return;
+
+        long shardSum = 0;
+        long shardMin = Long.MAX_VALUE;
+        long shardMax = Long.MIN_VALUE;
+        for (A element : elements) {
+            long value = func.call(element);
+            shardSum += value;
+            if (value < shardMin) shardMin = value;
+            if (value > shardMax) shardMax = value;
+        }
+
+        publish(elements.size(), shardSum, shardMin, shardMax);
+    }
+
+    /**
+     * Same as addAll with a function that returns a primitive int
+     *
+     * @param elements -
+     * @param func     -
+     * @param <A>      The type of the elements
+     */
+    public <A> void addAllOfInt(Collection<A> elements, final IntFunc1<A> func) {
+        addAll(elements, new LongFunc1<A>() {
+            @Override
+            public long call(A element) {
+                return func.call(element);
+            }
+        });
+    }
+
+    /**
+     * @return the number of values added
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * @return the sum of the values added
+     */
+    public long getSum() {
+        return sum.sum();
+    }
+
+    /**
+     * @return the minimum value added, 0 if no value was added like Lists.minOfLong
+     */
+    public long getMin() {
+        return getCount() == 0 ? 0 : min.get();
+    }
+
+    /**
+     * @return the maximum value added, 0 if no value was added like Lists.maxOfLong
+     */
+    public long getMax() {
+        return getCount() == 0 ? 0 : max.get();
+    }
+
+    /**
+     * @return the average of the values added, 0 if no value was added
+     */
+    public double getAverage() {
+        long currentCount = getCount();
+        return currentCount == 0 ? 0 : (double) getSum() / currentCount;
+    }
+
+    /**
+     * The count is updated last, so a thread that sees the count of some values also sees their minimum and maximum
+     */
+    private void publish(long values, long valuesSum, long valuesMin, long valuesMax) {
+        lowerTo(min, valuesMin);
+        raiseTo(max, valuesMax);
+        sum.add(valuesSum);
+        count.add(values);
+    }
+
+    private static void lowerTo(AtomicLong value, long candidate) {
+        long current = value.get();
+        while (candidate < current && !value.compareAndSet(current, candidate)) {
+            current = value.get();
+        }
+    }
+
+    private static void raiseTo(AtomicLong value, long candidate) {
+        long current = value.get();
+        while (candidate > current && !value.compareAndSet(current, candidate)) {
+            current = value.get();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ConcurrentLongStats{" +
+                "count=" + getCount() +
+                ", sum=" + getSum() +
+                ", min=" + getMin() +
+                ", max=" + getMax() +
+                '}';
+    }
+}
@@ -0,0 +1,298 @@
+package com.danieldisu;
+
+import com.danieldisu.functions.DoubleFunc1;
+import com.danieldisu.functions.DoublePredicate;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Same as IntColumn but for doubles: a fixed size column of primitive doubles stored in a double[] or in a direct
+ * ByteBuffer outside the heap. A value takes 8 bytes instead of the 24 or more of a Double in a list.
+ */
+public final class DoubleColumn {
+
+    private static final int BYTES = 8;
+
+    private final double[] array;
+    private final DoubleBuffer buffer;
+    private final int size;
+
+    private DoubleColumn(double[] array) {
+        this.array = array;
+        this.buffer = null;
+        this.size = array.length;
+    }
+
+    private DoubleColumn(DoubleBuffer buffer) {
+        this.array = null;
+        this.buffer = buffer;
+        this.size = buffer.remaining();
+    }
+
+    /**
+     * Creates a column of the given size in the heap, all the values are 0
+     *
+     * @param size -
+     * @return the new column
+     */
+    public static DoubleColumn allocate(int size) {
+        return new DoubleColumn(new double[size]);
+    }
+
+    /**
+     * Creates a column of the given size in a direct ByteBuffer in the native byte order, all the values are 0. The
+     * values do not count towards the heap and are never moved by the garbage collector.
+     *
+     * @param size -
+     * @return the new column
+     */
+    public static DoubleColumn allocateDirect(int size) {
+        if (size < 0 || size > Integer.MAX_VALUE / BYTES) throw new IllegalArgumentException("Invalid size: " + size);
+
+        ByteBuffer bytes = ByteBuffer.allocateDirect(size * BYTES).order(ByteOrder.nativeOrder());
+        return new DoubleColumn(bytes.asDoubleBuffer());
+    }
+
+    /**
+     * Creates a column backed by the given array, changes in the array are seen by the column and the other way round
+     *
+     * @param values -
+     * @return the new column
+     */
+    public static DoubleColumn wrap(double... values) {
+        return new DoubleColumn(values);
+    }
+
+    /**
+     * Creates a column backed by the remaining bytes of the given buffer, read in the byte order of the buffer. The
+     * buffer should use the native byte order to get the fastest loops.
+     *
+     * @param buffer -
+     * @return the new column
+     */
+    public static DoubleColumn wrap(ByteBuffer buffer) {
+        return new DoubleColumn(buffer.asDoubleBuffer());
+    }
+
+    /**
+     * Applies the function to each element of the list and stores the results in a new column, like Lists.map but
+     * without boxing the results
+     *
+     * @param originalList -
+     * @param func         -
+     * @param <A>          The type of the elements of the original list
+     * @return the new column
+     */
+    public static <A> DoubleColumn from(Collection<A> originalList, DoubleFunc1<A> func) {
+        double[] values = new double[originalList.size()];
+        int index = 0;
+
+        for (A element : originalList) {
+            values[index++] = func.call(element);
+        }
+
+        return new DoubleColumn(values);
+    }
+
+    /**
+     * Unboxes the values of the list into a new column, to convert the result of Lists.map
+     *
+     * @param values the values, none of them can be null
+     * @return the new column
+     */
+    public static DoubleColumn fromDoubles(Collection<Double> values) {
+        double[] array = new double[values.size()];
+        int index = 0;
+
+        for (Double value : values) {
+            array[index++] = value;
+        }
+
+        return new DoubleColumn(array);
+    }
+
+    /**
+     * @return the number of values
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return true if the values are stored outside the heap
+     */
+    public boolean isDirect() {
+        return buffer != null && buffer.isDirect();
+    }
+
+    /**
+     * @param index -
+     * @return the value at the given index
+     */
+    public double get(int index) {
+        return array != null ? array[index] : buffer.get(index);
+    }
+
+    /**
+     * Replaces the value at the given index
+     *
+     * @param index -
+     * @param value -
+     */
+    public void set(int index, double value) {
+        if (array != null) {
+            array[index] = value;
+        } else {
+            buffer.put(index, value);
+        }
+    }
+
+    /**
+     * Returns the sum of the values, added in order like Lists.sumOfDouble
+     *
+     * @return the sum
+     */
+    public double sum() {
+        double total = 0;
+
+        if (array != null) {
+            for (double value : array) {
+                total += value;
+            }
+        } else {
+            for (int i = 0; i < size; i++) {
+                total += buffer.get(i);
+            }
+        }
+
+        return total;
+    }
+
+    /**
+     * @return the minimum value, 0 if the column is empty
+     */
+    public double min() {
+        if (size == 0) return 0;
+
+        double min = Double.POSITIVE_INFINITY;
+
+        if (array != null) {
+            for (double value : array) {
+                min = Math.min(value, min);
+            }
+        } else {
+            for (int i = 0; i < size; i++) {
+                min = Math.min(buffer.get(i), min);
+            }
+        }
+
+        return min;
+    }
+
+    /**
+     * @return the maximum value, 0 if the column is empty
+     */
+    public double max() {
+        if (size == 0) return 0;
+
+        double max = Double.NEGATIVE_INFINITY;
+
+        if (array != null) {
+            for (double value : array) {
+                max = Math.max(value, max);
+            }
+        } else {
+            for (int i = 0; i < size; i++) {
+                max = Math.max(buffer.get(i), max);
+            }
+        }
+
+        return max;
+    }
+
+    /**
+     * Returns the number of values that satisfy the predicate
+     *
+     * @param predicate -
+     * @return the count
+     */
+    public int count(DoublePredicate predicate) {
+        int count = 0;
+
+        for (int i = 0; i < size; i++) {
+            if (predicate.call(get(i))) count++;
+        }
+
+        return count;
+    }
+
+    /**
+     * Returns a new column in the heap with the values that satisfy the predicate, use toDirect to move it outside
+     * the heap
+     *
+     * @param predicate -
+     * @return the new column
+     */
+    public DoubleColumn filter(DoublePredicate predicate) {
+        double[] result = new double[Math.min(size, 16)];
+        int count = 0;
+
+        for (int i = 0; i < size; i++) {
+            double value = get(i);
+            if (predicate.call(value)) {
+                if (count == result.length) result = Arrays.copyOf(result, Math.min(size, count * 2));
+                result[count++] = value;
+            }
+        }
+
+        return new DoubleColumn(count == result.length ? result : Arrays.copyOf(result, count));
+    }
+
+    /**
+     * @return a new array with the values
+     */
+    public double[] toArray() {
+        if (array != null) return array.clone();
+
+        double[] result = new double[size];
+        buffer.duplicate().get(result);
+        return result;
+    }
+
+    /**
+     * @return a copy of this column stored outside the heap
+     */
+    public DoubleColumn toDirect() {
+        DoubleColumn result = allocateDirect(size);
+
+        if (array != null) {
+            result.buffer.put(array);
+        } else {
+            result.buffer.put(buffer.duplicate());
+        }
+        result.buffer.clear();
+
+        return result;
+    }
+
+    /**
+     * Boxes the values into a new list, to use the column with the Lists functions
+     *
+     * @return the new list
+     */
+    public List<Double> toList() {
+        List<Double> result = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            result.add(get(i));
+        }
+
+        return result;
+    }
+}
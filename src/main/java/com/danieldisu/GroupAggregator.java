@@ -0,0 +1,574 @@
+package com.danieldisu;
+
+import com.danieldisu.functions.IntFunc1;
+import com.danieldisu.functions.LongFunc1;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+import rx.functions.Func1;
+
+/**
+ * Computes several aggregates of the elements of each group in a single pass, instead of filtering the list once per
+ * key and aggregating each filtered list. The aggregates are declared with a Builder, which returns a handle for each
+ * one that is used to read its value from the result:
+ * <pre>
+ * GroupAggregator.Builder&lt;Order, String&gt; builder = GroupAggregator.builder(CATEGORY);
+ * GroupAggregator.LongAggregate count = builder.count();
+ * GroupAggregator.LongAggregate quantity = builder.sumOfInt(QUANTITY);
+ * Map&lt;String, GroupAggregator.Aggregates&gt; result = builder.build().aggregate(orders);
+ * long total = result.get("books").get(quantity);
+ * </pre>
+ * The numeric aggregates are kept in primitive longs, and the groups are returned in the order in which their first
+ * element appears. A GroupAggregator can be reused and called from several threads, the functions must be thread safe
+ * to use the parallel version.
+ *
+ * @param <A> The type of the elements
+ * @param <K> The type of the keys
+ */
+public final class GroupAggregator<A, K> {
+
+    private static final int MIN_PARALLEL_CHUNK_SIZE = ParallelLists.DEFAULT_THRESHOLD;
+    private static final int CHUNKS_PER_PROCESSOR = 4;
+
+    private final Func1<A, K> keyFunction;
+    private final Aggregate<A>[] aggregates;
+    private final int longSlots;
+    private final int objectSlots;
+    private final int expectedGroups;
+
+    @SuppressWarnings("unchecked")
+    private GroupAggregator(Builder<A, K> builder) {
+        this.keyFunction = builder.keyFunction;
+        this.aggregates = (Aggregate<A>[]) builder.aggregates.toArray(new Aggregate<?>[builder.aggregates.size()]);
+        this.longSlots = builder.longSlots;
+        this.objectSlots = builder.objectSlots;
+        this.expectedGroups = builder.expectedGroups;
+    }
+
+    /**
+     * Returns a builder to declare the aggregates of the groups of elements with the same key
+     *
+     * @param keyFunction returns the key of the group of an element
+     * @param <A>         The type of the elements
+     * @param <K>         The type of the keys
+     * @return the builder
+     */
+    public static <A, K> Builder<A, K> builder(Func1<A, K> keyFunction) {
+        return new Builder<>(keyFunction);
+    }
+
+    /**
+     * Computes the aggregates of each group in a single pass over the elements
+     *
+     * @param originalList -
+     * @return the aggregates of each key, in the order in which the first element of each key appears
+     */
+    public Map<K, Aggregates> aggregate(Collection<A> originalList) {
+        Map<K, Aggregates> groups = expectedGroups > 0
+                ? new LinkedHashMap<K, Aggregates>(Lists.hashCapacityFor(expectedGroups))
+                : new LinkedHashMap<K, Aggregates>();
+        if (originalList == null) return groups;
+
+        for (A element : originalList) {
+            K key = keyFunction.call(element);
+            Aggregates group = groups.get(key);
+            if (group == null) {
+                group = newGroup();
+                groups.put(key, group);
+            }
+
+            for (Aggregate<A> aggregate : aggregates) {
+                aggregate.add(group, element);
+            }
+        }
+
+        return groups;
+    }
+
+    /**
+     * Same as aggregate but the list is split in partitions that are aggregated in parallel, and the aggregates of the
+     * partitions are merged in order, so the result is the same as the sequential version
+     *
+     * @param originalList  -
+     * @param parallelLists the pool where the partitions are aggregated
+     * @return the aggregates of each key, in the order in which the first element of each key appears
+     */
+    public Map<K, Aggregates> aggregate(Collection<A> originalList, ParallelLists parallelLists) {
+        if (originalList == null || originalList.size() < 2 * MIN_PARALLEL_CHUNK_SIZE) return aggregate(originalList);
+
+        List<A> elements = originalList instanceof List && originalList instanceof RandomAccess
+                ? (List<A>) originalList
+                : new ArrayList<>(originalList);
+
+        int chunks = CHUNKS_PER_PROCESSOR * Runtime.getRuntime().availableProcessors();
+        int chunkSize = Math.max(MIN_PARALLEL_CHUNK_SIZE, (elements.size() + chunks - 1) / chunks);
+        List<List<A>> partitions = new ArrayList<>();
+        for (int from = 0; from < elements.size(); from += chunkSize) {
+            partitions.add(elements.subList(from, Math.min(elements.size(), from + chunkSize)));
+        }
+
+        List<Map<K, Aggregates>> partialResults = parallelLists.withThreshold(1).map(partitions,
+                new Func1<List<A>, Map<K, Aggregates>>() {
+                    @Override
+                    public Map<K, Aggregates> call(List<A> partition) {
+                        return aggregate(partition);
+                    }
+                });
+
+        Map<K, Aggregates> groups = partialResults.get(0);
+        for (int i = 1; i < partialResults.size(); i++) {
+            for (Map.Entry<K, Aggregates> entry : partialResults.get(i).entrySet()) {
+                Aggregates group = groups.get(entry.getKey());
+                if (group == null) {
+                    groups.put(entry.getKey(), entry.getValue());
+                } else {
+                    for (Aggregate<A> aggregate : aggregates) {
+                        aggregate.merge(group, entry.getValue());
+                    }
+                }
+            }
+        }
+
+        return groups;
+    }
+
+    private Aggregates newGroup() {
+        Aggregates group = new Aggregates(longSlots, objectSlots);
+        for (Aggregate<A> aggregate : aggregates) {
+            aggregate.init(group);
+        }
+        return group;
+    }
+
+    /**
+     * Declares the aggregates of a GroupAggregator, each method returns the handle used to read the aggregate
+     *
+     * @param <A> The type of the elements
+     * @param <K> The type of the keys
+     */
+    public static final class Builder<A, K> {
+
+        private final Func1<A, K> keyFunction;
+        private final List<Aggregate<A>> aggregates = new ArrayList<>();
+        private int longSlots;
+        private int objectSlots;
+        private int expectedGroups;
+
+        private Builder(Func1<A, K> keyFunction) {
+            if (keyFunction == null) throw new IllegalArgumentException("keyFunction must not be null");
+            this.keyFunction = keyFunction;
+        }
+
+        /**
+         * Sizes the table of groups for the given number of groups, so it does not have to grow while aggregating
+         *
+         * @param expectedGroups -
+         * @return this builder
+         */
+        public Builder<A, K> expectedGroups(int expectedGroups) {
+            this.expectedGroups = expectedGroups;
+            return this;
+        }
+
+        /**
+         * @return the handle of the number of elements of each group
+         */
+        public LongAggregate count() {
+            return new LongAggregate(add(new Count<A>(longSlots++)));
+        }
+
+        /**
+         * @param func -
+         * @return the handle of the sum of the values of each group, as a long so it does not overflow
+         */
+        public LongAggregate sumOfInt(IntFunc1<A> func) {
+            return new LongAggregate(add(new SumOfLong<>(asLongFunc(func), longSlots++)));
+        }
+
+        /**
+         * @param func -
+         * @return the handle of the sum of the values of each group
+         */
+        public LongAggregate sumOfLong(LongFunc1<A> func) {
+            return new LongAggregate(add(new SumOfLong<>(func, longSlots++)));
+        }
+
+        /**
+         * @param func -
+         * @return the handle of the minimum value of each group
+         */
+        public LongAggregate minOfInt(IntFunc1<A> func) {
+            return new LongAggregate(add(new ExtremeOfLong<>(asLongFunc(func), true, longSlots++)));
+        }
+
+        /**
+         * @param func -
+         * @return the handle of the maximum value of each group
+         */
+        public LongAggregate maxOfInt(IntFunc1<A> func) {
+            return new LongAggregate(add(new ExtremeOfLong<>(asLongFunc(func), false, longSlots++)));
+        }
+
+        /**
+         * @param func -
+         * @return the handle of the minimum value of each group
+         */
+        public LongAggregate minOfLong(LongFunc1<A> func) {
+            return new LongAggregate(add(new ExtremeOfLong<>(func, true, longSlots++)));
+        }
+
+        /**
+         * @param func -
+         * @return the handle of the maximum value of each group
+         */
+        public LongAggregate maxOfLong(LongFunc1<A> func) {
+            return new LongAggregate(add(new ExtremeOfLong<>(func, false, longSlots++)));
+        }
+
+        /**
+         * @param func -
+         * @return the handle of the exact sum of the values of each group, computed with a BigDecimalSum
+         */
+        public ObjectAggregate<BigDecimal> sumBigDecimal(Func1<A, BigDecimal> func) {
+            return new ObjectAggregate<>(add(new SumBigDecimal<>(func, objectSlots++)));
+        }
+
+        /**
+         * @param func returns the value whose distinct occurrences are counted
+         * @return the handle of the number of distinct values of each group
+         */
+        public LongAggregate distinctCount(Func1<A, ?> func) {
+            return new LongAggregate(add(new DistinctCount<>(func, objectSlots++)));
+        }
+
+        /**
+         * @param func      returns the value whose distinct occurrences are estimated
+         * @param precision the precision of the HyperLogLog of each group, which takes 2^precision bytes
+         * @return the handle of the estimated number of distinct values of each group
+         */
+        public LongAggregate approxDistinctCount(Func1<A, ?> func, int precision) {
+            return new LongAggregate(add(new ApproxDistinctCount<>(func, precision, objectSlots++)));
+        }
+
+        /**
+         * @return the handle of the list of the elements of each group, in their original order
+         */
+        public ObjectAggregate<List<A>> collect() {
+            return new ObjectAggregate<>(add(new Collect<A>(objectSlots++)));
+        }
+
+        public GroupAggregator<A, K> build() {
+            return new GroupAggregator<>(this);
+        }
+
+        private Aggregate<A> add(Aggregate<A> aggregate) {
+            aggregates.add(aggregate);
+            return aggregate;
+        }
+
+        private static <A> LongFunc1<A> asLongFunc(final IntFunc1<A> func) {
+            return new LongFunc1<A>() {
+                @Override
+                public long call(A element) {
+                    return func.call(element);
+                }
+            };
+        }
+    }
+
+    /**
+     * The aggregates of one group, read with the handles returned by the Builder
+     */
+    public static final class Aggregates {
+
+        final long[] longs;
+        final Object[] objects;
+
+        Aggregates(int longSlots, int objectSlots) {
+            this.longs = new long[longSlots];
+            this.objects = new Object[objectSlots];
+        }
+
+        /**
+         * @param aggregate the handle returned by the Builder
+         * @return the value of the aggregate in this group
+         */
+        public long get(LongAggregate aggregate) {
+            return aggregate.value(this);
+        }
+
+        /**
+         * @param aggregate the handle returned by the Builder
+         * @param <R>       The type of the value
+         * @return the value of the aggregate in this group
+         */
+        public <R> R get(ObjectAggregate<R> aggregate) {
+            return aggregate.value(this);
+        }
+    }
+
+    /**
+     * Handle of an aggregate whose value is a long
+     */
+    public static final class LongAggregate {
+
+        private final Aggregate<?> aggregate;
+
+        LongAggregate(Aggregate<?> aggregate) {
+            this.aggregate = aggregate;
+        }
+
+        long value(Aggregates group) {
+            return aggregate.longValue(group);
+        }
+    }
+
+    /**
+     * Handle of an aggregate whose value is an object
+     *
+     * @param <R> The type of the value
+     */
+    public static final class ObjectAggregate<R> {
+
+        private final Aggregate<?> aggregate;
+
+        ObjectAggregate(Aggregate<?> aggregate) {
+            this.aggregate = aggregate;
+        }
+
+        @SuppressWarnings("unchecked")
+        R value(Aggregates group) {
+            return (R) aggregate.objectValue(group);
+        }
+    }
+
+    /**
+     * Definition of an aggregate, it keeps its state in a slot of the Aggregates of each group
+     */
+    private abstract static class Aggregate<A> {
+
+        final int slot;
+
+        Aggregate(int slot) {
+            this.slot = slot;
+        }
+
+        abstract void init(Aggregates group);
+
+        abstract void add(Aggregates group, A element);
+
+        /**
+         * Adds the state of a group of a later partition to the state of the same group of an earlier one
+         */
+        abstract void merge(Aggregates group, Aggregates laterGroup);
+
+        long longValue(Aggregates group) {
+            return group.longs[slot];
+        }
+
+        Object objectValue(Aggregates group) {
+            return group.objects[slot];
+        }
+    }
+
+    private static final class Count<A> extends Aggregate<A> {
+
+        Count(int slot) {
+            super(slot);
+        }
+
+        @Override
+        void init(Aggregates group) {
+        }
+
+        @Override
+        void add(Aggregates group, A element) {
+            group.longs[slot]++;
+        }
+
+        @Override
+        void merge(Aggregates group, Aggregates laterGroup) {
+            group.longs[slot] += laterGroup.longs[slot];
+        }
+    }
+
+    private static final class SumOfLong<A> extends Aggregate<A> {
+
+        private final LongFunc1<A> func;
+
+        SumOfLong(LongFunc1<A> func, int slot) {
+            super(slot);
+            this.func = func;
+        }
+
+        @Override
+        void init(Aggregates group) {
+        }
+
+        @Override
+        void add(Aggregates group, A element) {
+            group.longs[slot] += func.call(element);
+        }
+
+        @Override
+        void merge(Aggregates group, Aggregates laterGroup) {
+            group.longs[slot] += laterGroup.longs[slot];
+        }
+    }
+
+    private static final class ExtremeOfLong<A> extends Aggregate<A> {
+
+        private final LongFunc1<A> func;
+        private final boolean min;
+
+        ExtremeOfLong(LongFunc1<A> func, boolean min, int slot) {
+            super(slot);
+            this.func = func;
+            this.min = min;
+        }
+
+        @Override
+        void init(Aggregates group) {
+            // a group always has at least one element, so the initial value is always replaced
+            group.longs[slot] = min ? Long.MAX_VALUE : Long.MIN_VALUE;
+        }
+
+        @Override
+        void add(Aggregates group, A element) {
+            long value = func.call(element);
+            if (min ? value < group.longs[slot] : value > group.longs[slot]) group.longs[slot] = value;
+        }
+
+        @Override
+        void merge(Aggregates group, Aggregates laterGroup) {
+            long value = laterGroup.longs[slot];
+            if (min ? value < group.longs[slot] : value > group.longs[slot]) group.longs[slot] = value;
+        }
+    }
+
+    private static final class SumBigDecimal<A> extends Aggregate<A> {
+
+        private final Func1<A, BigDecimal> func;
+
+        SumBigDecimal(Func1<A, BigDecimal> func, int slot) {
+            super(slot);
+            this.func = func;
+        }
+
+        @Override
+        void init(Aggregates group) {
+            group.objects[slot] = new BigDecimalSum();
+        }
+
+        @Override
+        void add(Aggregates group, A element) {
+            ((BigDecimalSum) group.objects[slot]).add(func.call(element));
+        }
+
+        @Override
+        void merge(Aggregates group, Aggregates laterGroup) {
+            ((BigDecimalSum) group.objects[slot]).add((BigDecimalSum) laterGroup.objects[slot]);
+        }
+
+        @Override
+        Object objectValue(Aggregates group) {
+            return ((BigDecimalSum) group.objects[slot]).sum();
+        }
+    }
+
+    private static final class DistinctCount<A> extends Aggregate<A> {
+
+        private final Func1<A, ?> func;
+
+        DistinctCount(Func1<A, ?> func, int slot) {
+            super(slot);
+            this.func = func;
+        }
+
+        @Override
+        void init(Aggregates group) {
+            group.objects[slot] = new HashSet<>();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        void add(Aggregates group, A element) {
+            ((HashSet<Object>) group.objects[slot]).add(func.call(element));
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        void merge(Aggregates group, Aggregates laterGroup) {
+            ((HashSet<Object>) group.objects[slot]).addAll((HashSet<Object>) laterGroup.objects[slot]);
+        }
+
+        @Override
+        long longValue(Aggregates group) {
+            return ((HashSet<?>) group.objects[slot]).size();
+        }
+    }
+
+    private static final class ApproxDistinctCount<A> extends Aggregate<A> {
+
+        private final Func1<A, ?> func;
+        private final int precision;
+
+        ApproxDistinctCount(Func1<A, ?> func, int precision, int slot) {
+            super(slot);
+            HyperLogLog.checkPrecision(precision);
+            this.func = func;
+            this.precision = precision;
+        }
+
+        @Override
+        void init(Aggregates group) {
+            group.objects[slot] = new HyperLogLog(precision);
+        }
+
+        @Override
+        void add(Aggregates group, A element) {
+            ((HyperLogLog) group.objects[slot]).add(func.call(element));
+        }
+
+        @Override
+        void merge(Aggregates group, Aggregates laterGroup) {
+            ((HyperLogLog) group.objects[slot]).merge((HyperLogLog) laterGroup.objects[slot]);
+        }
+
+        @Override
+        long longValue(Aggregates group) {
+            return ((HyperLogLog) group.objects[slot]).estimate();
+        }
+    }
+
+    private static final class Collect<A> extends Aggregate<A> {
+
+        Collect(int slot) {
+            super(slot);
+        }
+
+        @Override
+        void init(Aggregates group) {
+            group.objects[slot] = new ArrayList<A>();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        void add(Aggregates group, A element) {
+            ((ArrayList<A>) group.objects[slot]).add(element);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        void merge(Aggregates group, Aggregates laterGroup) {
+            ((ArrayList<A>) group.objects[slot]).addAll((ArrayList<A>) laterGroup.objects[slot]);
+        }
+    }
+}
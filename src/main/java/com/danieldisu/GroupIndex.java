@@ -0,0 +1,143 @@
+package com.danieldisu;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+import rx.functions.Func1;
+
+/**
+ * Index of elements grouped by a key, built with Lists.groupBy. Getting all the elements with a key is O(1) instead of
+ * filtering the whole list with Lists.filter, and the index can be kept up to date by adding and removing elements.
+ * The elements of each group keep the order in which they were added.
+ *
+ * @param <K> The type of the keys
+ * @param <A> The type of the elements
+ */
+public class GroupIndex<K, A> {
+
+    private final Func1<A, K> keyFunction;
+    private final HashMap<K, List<A>> groups;
+    private int size;
+
+    GroupIndex(Func1<A, K> keyFunction, int expectedSize) {
+        this.keyFunction = keyFunction;
+        this.groups = new HashMap<>(Lists.hashCapacityFor(expectedSize));
+    }
+
+    /**
+     * @param key -
+     * @return an unmodifiable view of the elements with the given key, empty if there is none
+     */
+    public List<A> get(K key) {
+        List<A> group = groups.get(key);
+        if (group == null) return Collections.emptyList();
+        return Collections.unmodifiableList(group);
+    }
+
+    /**
+     * @param key -
+     * @return the first element added with the given key, or null if there is none
+     */
+    @Nullable
+    public A first(K key) {
+        List<A> group = groups.get(key);
+        return group == null ? null : group.get(0);
+    }
+
+    /**
+     * @param key -
+     * @return true if there is at least one element with the given key
+     */
+    public boolean containsKey(K key) {
+        return groups.containsKey(key);
+    }
+
+    /**
+     * Adds the element at the end of the group of its key
+     *
+     * @param element -
+     */
+    public void add(A element) {
+        K key = keyFunction.call(element);
+        List<A> group = groups.get(key);
+
+        if (group == null) {
+            group = new ArrayList<>(2);
+            groups.put(key, group);
+        }
+
+        group.add(element);
+        size++;
+    }
+
+    /**
+     * Adds all the elements to the index
+     *
+     * @param elements -
+     */
+    public void addAll(Collection<A> elements) {
+        if (elements == null) return;
+
+        for (A element : elements) {
+            add(element);
+        }
+    }
+
+    /**
+     * Removes the first occurrence of the element from the group of its key, the group is removed when it is empty
+     *
+     * @param element -
+     * @return true if the element was removed
+     */
+    public boolean remove(A element) {
+        K key = keyFunction.call(element);
+        List<A> group = groups.get(key);
+
+        if (group == null || !group.remove(element)) return false;
+
+        if (group.isEmpty()) groups.remove(key);
+        size--;
+        return true;
+    }
+
+    /**
+     * Removes all the elements with the given key
+     *
+     * @param key -
+     * @return the removed elements, empty if there were none
+     */
+    public List<A> removeKey(K key) {
+        List<A> group = groups.remove(key);
+        if (group == null) return Collections.emptyList();
+
+        size -= group.size();
+        return group;
+    }
+
+    /**
+     * @return the number of elements in the index
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the number of different keys
+     */
+    public int groupCount() {
+        return groups.size();
+    }
+
+    /**
+     * @return an unmodifiable view of the keys
+     */
+    public Set<K> keys() {
+        return Collections.unmodifiableSet(groups.keySet());
+    }
+}
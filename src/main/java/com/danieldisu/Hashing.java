@@ -0,0 +1,48 @@
+package com.danieldisu;
+
+import javax.annotation.Nullable;
+
+/**
+ * Hash functions shared by the sketches
+ */
+final class Hashing {
+
+    private Hashing() {
+    }
+
+    /**
+     * Spreads the bits of the value over the 64 bits of the result, it is the finalizer of MurmurHash3 so different
+     * values always have different results
+     */
+    static long mix(long value) {
+        long hash = value;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    /**
+     * Hashes a value to 64 bits. Integral numbers use all their bits and char sequences are hashed from their chars,
+     * so different ids and strings almost never share a hash like they would with their 32 bit hashCode. Other
+     * objects are hashed from their hashCode.
+     */
+    static long hash(@Nullable Object value) {
+        if (value == null) return mix(0);
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return mix(((Number) value).longValue());
+        }
+        if (value instanceof CharSequence) return hashChars((CharSequence) value);
+        return mix(value.hashCode());
+    }
+
+    private static long hashChars(CharSequence chars) {
+        long hash = 0;
+        for (int i = 0, length = chars.length(); i < length; i++) {
+            hash = (hash + chars.charAt(i)) * 0x9e3779b97f4a7c15L;
+        }
+        return mix(hash ^ chars.length());
+    }
+}
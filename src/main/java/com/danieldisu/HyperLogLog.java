@@ -0,0 +1,143 @@
+package com.danieldisu;
+
+import java.util.Arrays;
+
+import javax.annotation.Nullable;
+
+/**
+ * Estimates the number of distinct values added to it in a fixed amount of memory, 2^precision bytes, instead of
+ * keeping all the values in a set. The standard error of the estimate is about 1.04 / sqrt(2^precision), 0.8% with the
+ * default precision of 14 which takes 16KB.
+ * <p>
+ * Integral numbers and char sequences are hashed to 64 bits, so tens of millions of ids or strings can be counted
+ * without their hashes colliding. Other objects are hashed from their hashCode, so values with the same hashCode are
+ * counted once. Two HyperLogLogs with the same precision can be merged, so the values can be counted in partitions
+ * and merged at the end. Not thread safe.
+ */
+public final class HyperLogLog {
+
+    public static final int DEFAULT_PRECISION = 14;
+    public static final int MIN_PRECISION = 4;
+    public static final int MAX_PRECISION = 18;
+
+    private final int precision;
+    private final byte[] registers;
+
+    /**
+     * Creates an empty HyperLogLog with the default precision
+     */
+    public HyperLogLog() {
+        this(DEFAULT_PRECISION);
+    }
+
+    /**
+     * Creates an empty HyperLogLog
+     *
+     * @param precision the log2 of the number of registers, between MIN_PRECISION and MAX_PRECISION
+     */
+    public HyperLogLog(int precision) {
+        checkPrecision(precision);
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    /**
+     * Adds a value, null is counted as one more value
+     *
+     * @param value -
+     */
+    public void add(@Nullable Object value) {
+        addHash(Hashing.hash(value));
+    }
+
+    /**
+     * Adds a numeric value, all the 64 bits are used so different longs are always different values
+     *
+     * @param value -
+     */
+    public void addLong(long value) {
+        addHash(Hashing.mix(value));
+    }
+
+    private void addHash(long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        // a bit set in the low bits emptied by the shift caps the rank at 64 - precision + 1
+        long remaining = (hash << precision) | (1L << (precision - 1));
+        byte rank = (byte) (Long.numberOfLeadingZeros(remaining) + 1);
+        if (rank > registers[index]) registers[index] = rank;
+    }
+
+    /**
+     * Adds the values of another HyperLogLog to this one
+     *
+     * @param other a HyperLogLog with the same precision
+     * @return this HyperLogLog
+     */
+    public HyperLogLog merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Cannot merge precision " + other.precision + " into " + precision);
+        }
+
+        for (int i = 0; i < registers.length; i++) {
+            if (other.registers[i] > registers[i]) registers[i] = other.registers[i];
+        }
+        return this;
+    }
+
+    /**
+     * @return the estimated number of distinct values added
+     */
+    public long estimate() {
+        int registerCount = registers.length;
+        double sum = 0;
+        int zeros = 0;
+
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) zeros++;
+        }
+
+        double estimate = alpha(registerCount) * registerCount * registerCount / sum;
+
+        // with few values many registers are still empty and linear counting is more accurate
+        if (estimate <= 2.5 * registerCount && zeros > 0) {
+            estimate = registerCount * Math.log((double) registerCount / zeros);
+        }
+
+        return Math.round(estimate);
+    }
+
+    /**
+     * @return the precision given to the constructor
+     */
+    public int getPrecision() {
+        return precision;
+    }
+
+    /**
+     * Removes all the values
+     */
+    public void clear() {
+        Arrays.fill(registers, (byte) 0);
+    }
+
+    static void checkPrecision(int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("precision must be between " + MIN_PRECISION + " and " + MAX_PRECISION
+                    + ": " + precision);
+        }
+    }
+
+    private static double alpha(int registerCount) {
+        switch (registerCount) {
+            case 16:
+                return 0.673;
+            case 32:
+                return 0.697;
+            case 64:
+                return 0.709;
+            default:
+                return 0.7213 / (1 + 1.079 / registerCount);
+        }
+    }
+}
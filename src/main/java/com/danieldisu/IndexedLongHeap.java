@@ -0,0 +1,112 @@
+package com.danieldisu;
+
+import java.util.Arrays;
+
+/**
+ * Binary heap of primitive long keys where each key is added through a Node that remembers its position, so any key
+ * can be removed or changed in O(log n) and not only the root. It is used by LiveList to keep the minimum or the
+ * maximum of the elements while they are added and removed.
+ */
+final class IndexedLongHeap {
+
+    /**
+     * A key in the heap, returned by add and used to remove or change it later
+     */
+    static final class Node {
+        private long key;
+        private int position = -1;
+    }
+
+    private final boolean minAtRoot;
+    private Node[] nodes = new Node[16];
+    private int size;
+
+    /**
+     * @param minAtRoot true to keep the minimum key at the root, false to keep the maximum
+     */
+    IndexedLongHeap(boolean minAtRoot) {
+        this.minAtRoot = minAtRoot;
+    }
+
+    Node add(long key) {
+        if (size == nodes.length) nodes = Arrays.copyOf(nodes, size * 2);
+
+        Node node = new Node();
+        node.key = key;
+        place(node, size++);
+        siftUp(node.position);
+        return node;
+    }
+
+    void remove(Node node) {
+        int position = node.position;
+        node.position = -1;
+
+        Node last = nodes[--size];
+        nodes[size] = null;
+        if (last == node) return;
+
+        place(last, position);
+        siftDown(position);
+        siftUp(last.position);
+    }
+
+    void update(Node node, long key) {
+        long oldKey = node.key;
+        node.key = key;
+        if (isBefore(key, oldKey)) {
+            siftUp(node.position);
+        } else {
+            siftDown(node.position);
+        }
+    }
+
+    /**
+     * Returns the minimum or maximum key, the heap must not be empty
+     */
+    long root() {
+        return nodes[0].key;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void clear() {
+        Arrays.fill(nodes, 0, size, null);
+        size = 0;
+    }
+
+    private boolean isBefore(long key1, long key2) {
+        return minAtRoot ? key1 < key2 : key1 > key2;
+    }
+
+    private void place(Node node, int position) {
+        nodes[position] = node;
+        node.position = position;
+    }
+
+    private void siftUp(int position) {
+        Node node = nodes[position];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (!isBefore(node.key, nodes[parent].key)) break;
+            place(nodes[parent], position);
+            position = parent;
+        }
+        place(node, position);
+    }
+
+    private void siftDown(int position) {
+        Node node = nodes[position];
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= size) break;
+            if (child + 1 < size && isBefore(nodes[child + 1].key, nodes[child].key)) child++;
+            if (!isBefore(nodes[child].key, node.key)) break;
+            place(nodes[child], position);
+            position = child;
+        }
+        place(node, position);
+    }
+}
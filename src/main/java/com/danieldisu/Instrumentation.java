@@ -0,0 +1,59 @@
+package com.danieldisu;
+
+import java.util.Collection;
+
+import javax.annotation.Nullable;
+
+/**
+ * Entry point of the optional instrumentation of the Lists operations. It is disabled until a listener is set, and
+ * while it is disabled the only cost for the operations is reading a volatile field.
+ * <p>
+ * When it is enabled the instrumented operations (map, mapOrdered, filteredMap, flatMap, flatMapUnique, distinct,
+ * distinctBy, diff and filter) report their statistics to the listener. Timing the given function means calling
+ * System.nanoTime twice per element, so it should only be enabled while measuring.
+ */
+public final class Instrumentation {
+
+    private static volatile ListsListener listener;
+
+    private Instrumentation() {
+    }
+
+    /**
+     * Sets the listener that receives the statistics of the operations, null disables the instrumentation
+     *
+     * @param newListener -
+     */
+    public static void setListener(@Nullable ListsListener newListener) {
+        listener = newListener;
+    }
+
+    /**
+     * @return true if a listener is set
+     */
+    public static boolean isEnabled() {
+        return listener != null;
+    }
+
+    /**
+     * Returns a recorder for an operation that is starting, or null if the instrumentation is disabled
+     */
+    @Nullable
+    static OperationRecorder start(String operation, @Nullable Collection<?> input) {
+        ListsListener currentListener = listener;
+        if (currentListener == null) return null;
+
+        return new OperationRecorder(currentListener, operation, input == null ? 0 : input.size());
+    }
+
+    /**
+     * Same as start for an operation whose input is an array
+     */
+    @Nullable
+    static OperationRecorder start(String operation, int inputSize) {
+        ListsListener currentListener = listener;
+        if (currentListener == null) return null;
+
+        return new OperationRecorder(currentListener, operation, inputSize);
+    }
+}
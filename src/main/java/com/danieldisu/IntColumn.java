@@ -0,0 +1,298 @@
+package com.danieldisu;
+
+import com.danieldisu.functions.IntFunc1;
+import com.danieldisu.functions.IntPredicate;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Fixed size column of primitive ints stored in an int[] or in a direct ByteBuffer outside the heap. A value takes 4
+ * bytes instead of the 16 or more of an Integer in a list, and the aggregations are plain loops over the values that
+ * the JIT can unroll and vectorize, so big numeric datasets can be kept and aggregated without creating garbage.
+ */
+public final class IntColumn {
+
+    private static final int BYTES = 4;
+
+    private final int[] array;
+    private final IntBuffer buffer;
+    private final int size;
+
+    private IntColumn(int[] array) {
+        this.array = array;
+        this.buffer = null;
+        this.size = array.length;
+    }
+
+    private IntColumn(IntBuffer buffer) {
+        this.array = null;
+        this.buffer = buffer;
+        this.size = buffer.remaining();
+    }
+
+    /**
+     * Creates a column of the given size in the heap, all the values are 0
+     *
+     * @param size -
+     * @return the new column
+     */
+    public static IntColumn allocate(int size) {
+        return new IntColumn(new int[size]);
+    }
+
+    /**
+     * Creates a column of the given size in a direct ByteBuffer in the native byte order, all the values are 0. The
+     * values do not count towards the heap and are never moved by the garbage collector.
+     *
+     * @param size -
+     * @return the new column
+     */
+    public static IntColumn allocateDirect(int size) {
+        if (size < 0 || size > Integer.MAX_VALUE / BYTES) throw new IllegalArgumentException("Invalid size: " + size);
+
+        return new IntColumn(ByteBuffer.allocateDirect(size * BYTES).order(ByteOrder.nativeOrder()).asIntBuffer());
+    }
+
+    /**
+     * Creates a column backed by the given array, changes in the array are seen by the column and the other way round
+     *
+     * @param values -
+     * @return the new column
+     */
+    public static IntColumn wrap(int... values) {
+        return new IntColumn(values);
+    }
+
+    /**
+     * Creates a column backed by the remaining bytes of the given buffer, read in the byte order of the buffer. The
+     * buffer should use the native byte order to get the fastest loops.
+     *
+     * @param buffer -
+     * @return the new column
+     */
+    public static IntColumn wrap(ByteBuffer buffer) {
+        return new IntColumn(buffer.asIntBuffer());
+    }
+
+    /**
+     * Applies the function to each element of the list and stores the results in a new column, like Lists.map but
+     * without boxing the results
+     *
+     * @param originalList -
+     * @param func         -
+     * @param <A>          The type of the elements of the original list
+     * @return the new column
+     */
+    public static <A> IntColumn from(Collection<A> originalList, IntFunc1<A> func) {
+        int[] values = new int[originalList.size()];
+        int index = 0;
+
+        for (A element : originalList) {
+            values[index++] = func.call(element);
+        }
+
+        return new IntColumn(values);
+    }
+
+    /**
+     * Unboxes the values of the list into a new column, to convert the result of Lists.map
+     *
+     * @param values the values, none of them can be null
+     * @return the new column
+     */
+    public static IntColumn fromIntegers(Collection<Integer> values) {
+        int[] array = new int[values.size()];
+        int index = 0;
+
+        for (Integer value : values) {
+            array[index++] = value;
+        }
+
+        return new IntColumn(array);
+    }
+
+    /**
+     * @return the number of values
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return true if the values are stored outside the heap
+     */
+    public boolean isDirect() {
+        return buffer != null && buffer.isDirect();
+    }
+
+    /**
+     * @param index -
+     * @return the value at the given index
+     */
+    public int get(int index) {
+        return array != null ? array[index] : buffer.get(index);
+    }
+
+    /**
+     * Replaces the value at the given index
+     *
+     * @param index -
+     * @param value -
+     */
+    public void set(int index, int value) {
+        if (array != null) {
+            array[index] = value;
+        } else {
+            buffer.put(index, value);
+        }
+    }
+
+    /**
+     * Returns the sum of the values as a long, so it does not overflow like Lists.sumOfInt with big columns
+     *
+     * @return the sum
+     */
+    public long sum() {
+        long total = 0;
+
+        if (array != null) {
+            for (int value : array) {
+                total += value;
+            }
+        } else {
+            for (int i = 0; i < size; i++) {
+                total += buffer.get(i);
+            }
+        }
+
+        return total;
+    }
+
+    /**
+     * @return the minimum value, 0 if the column is empty
+     */
+    public int min() {
+        if (size == 0) return 0;
+
+        int min = Integer.MAX_VALUE;
+
+        if (array != null) {
+            for (int value : array) {
+                min = Math.min(value, min);
+            }
+        } else {
+            for (int i = 0; i < size; i++) {
+                min = Math.min(buffer.get(i), min);
+            }
+        }
+
+        return min;
+    }
+
+    /**
+     * @return the maximum value, 0 if the column is empty
+     */
+    public int max() {
+        if (size == 0) return 0;
+
+        int max = Integer.MIN_VALUE;
+
+        if (array != null) {
+            for (int value : array) {
+                max = Math.max(value, max);
+            }
+        } else {
+            for (int i = 0; i < size; i++) {
+                max = Math.max(buffer.get(i), max);
+            }
+        }
+
+        return max;
+    }
+
+    /**
+     * Returns the number of values that satisfy the predicate
+     *
+     * @param predicate -
+     * @return the count
+     */
+    public int count(IntPredicate predicate) {
+        int count = 0;
+
+        for (int i = 0; i < size; i++) {
+            if (predicate.call(get(i))) count++;
+        }
+
+        return count;
+    }
+
+    /**
+     * Returns a new column in the heap with the values that satisfy the predicate, use toDirect to move it outside
+     * the heap
+     *
+     * @param predicate -
+     * @return the new column
+     */
+    public IntColumn filter(IntPredicate predicate) {
+        int[] result = new int[Math.min(size, 16)];
+        int count = 0;
+
+        for (int i = 0; i < size; i++) {
+            int value = get(i);
+            if (predicate.call(value)) {
+                if (count == result.length) result = Arrays.copyOf(result, Math.min(size, count * 2));
+                result[count++] = value;
+            }
+        }
+
+        return new IntColumn(count == result.length ? result : Arrays.copyOf(result, count));
+    }
+
+    /**
+     * @return a new array with the values
+     */
+    public int[] toArray() {
+        if (array != null) return array.clone();
+
+        int[] result = new int[size];
+        buffer.duplicate().get(result);
+        return result;
+    }
+
+    /**
+     * @return a copy of this column stored outside the heap
+     */
+    public IntColumn toDirect() {
+        IntColumn result = allocateDirect(size);
+
+        if (array != null) {
+            result.buffer.put(array);
+        } else {
+            result.buffer.put(buffer.duplicate());
+        }
+        result.buffer.clear();
+
+        return result;
+    }
+
+    /**
+     * Boxes the values into a new list, to use the column with the Lists functions
+     *
+     * @return the new list
+     */
+    public List<Integer> toList() {
+        List<Integer> result = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            result.add(get(i));
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,120 @@
+package com.danieldisu;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bounded binary heap of elements ordered by a primitive int key, used by the topK and bottomK functions of Lists to
+ * select elements without boxing their keys. The root is the element that would be dropped first: the smallest key
+ * when keeping the biggest ones, and the biggest key when keeping the smallest ones. Elements with the same key are
+ * ordered by the order in which they were offered, the later ones are dropped first, so the result is the same as a
+ * stable sort followed by taking the first k elements.
+ *
+ * @param <A> The type of the elements
+ */
+final class IntKeyHeap<A> {
+
+    private final int[] keys;
+    private final int[] offerIndexes;
+    private final Object[] elements;
+    private final boolean keepBiggest;
+    private int size;
+    private int offered;
+
+    IntKeyHeap(int capacity, boolean keepBiggest) {
+        this.keys = new int[capacity];
+        this.offerIndexes = new int[capacity];
+        this.elements = new Object[capacity];
+        this.keepBiggest = keepBiggest;
+    }
+
+    /**
+     * Adds the element if the heap is not full, or replaces the root if the element has a better key. Elements with the
+     * same key as the root are not added, so the first ones found are kept.
+     */
+    void offer(A element, int key) {
+        int offerIndex = offered++;
+        if (size < keys.length) {
+            set(size, key, offerIndex, element);
+            siftUp(size++);
+        } else if (size > 0 && isBefore(0, key, offerIndex)) {
+            set(0, key, offerIndex, element);
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Empties the heap and returns the elements from the best key to the worst one
+     */
+    @SuppressWarnings("unchecked")
+    List<A> drainBestFirst() {
+        Object[] sorted = new Object[size];
+
+        for (int i = size - 1; i >= 0; i--) {
+            sorted[i] = elements[0];
+            size--;
+            set(0, keys[size], offerIndexes[size], elements[size]);
+            elements[size] = null;
+            siftDown(0);
+        }
+
+        ArrayList<A> result = new ArrayList<>(sorted.length);
+        for (Object element : sorted) {
+            result.add((A) element);
+        }
+        return result;
+    }
+
+    /**
+     * Returns true if the element at the position has to be nearer the root than the given key and offer index, the
+     * element offered later goes first when the keys are the same
+     */
+    private boolean isBefore(int position, int key, int offerIndex) {
+        if (keys[position] == key) return offerIndexes[position] > offerIndex;
+        return keepBiggest ? keys[position] < key : keys[position] > key;
+    }
+
+    private boolean isBefore(int position1, int position2) {
+        return isBefore(position1, keys[position2], offerIndexes[position2]);
+    }
+
+    private void set(int position, int key, int offerIndex, Object element) {
+        keys[position] = key;
+        offerIndexes[position] = offerIndex;
+        elements[position] = element;
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!isBefore(index, parent)) return;
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) return;
+            if (child + 1 < size && isBefore(child + 1, child)) child++;
+            if (!isBefore(child, index)) return;
+            swap(index, child);
+            index = child;
+        }
+    }
+
+    private void swap(int index1, int index2) {
+        int key = keys[index1];
+        keys[index1] = keys[index2];
+        keys[index2] = key;
+
+        int offerIndex = offerIndexes[index1];
+        offerIndexes[index1] = offerIndexes[index2];
+        offerIndexes[index2] = offerIndex;
+
+        Object element = elements[index1];
+        elements[index1] = elements[index2];
+        elements[index2] = element;
+    }
+}
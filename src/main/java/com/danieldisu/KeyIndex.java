@@ -0,0 +1,122 @@
+package com.danieldisu;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+import rx.functions.Func1;
+
+/**
+ * Index of elements by a unique key, built with Lists.keyBy. Looking up an element by its key is O(1) instead of
+ * scanning the whole list with Lists.find, and the index can be kept up to date by adding and removing elements.
+ * <p>
+ * Each key maps to one element, when several elements have the same key the last one added is kept. Use a
+ * GroupIndex when the keys are not unique.
+ *
+ * @param <K> The type of the keys
+ * @param <A> The type of the elements
+ */
+public class KeyIndex<K, A> {
+
+    private final Func1<A, K> keyFunction;
+    private final HashMap<K, A> elementsByKey;
+
+    KeyIndex(Func1<A, K> keyFunction, int expectedSize) {
+        this.keyFunction = keyFunction;
+        this.elementsByKey = new HashMap<>(Lists.hashCapacityFor(expectedSize));
+    }
+
+    /**
+     * @param key -
+     * @return the element with the given key, or null if there is none
+     */
+    @Nullable
+    public A get(K key) {
+        return elementsByKey.get(key);
+    }
+
+    /**
+     * @param key -
+     * @return true if there is an element with the given key
+     */
+    public boolean containsKey(K key) {
+        return elementsByKey.containsKey(key);
+    }
+
+    /**
+     * Adds the element to the index, replacing the element with the same key if there was one
+     *
+     * @param element -
+     * @return the replaced element, or null if there was none
+     */
+    @Nullable
+    public A add(A element) {
+        return elementsByKey.put(keyFunction.call(element), element);
+    }
+
+    /**
+     * Adds all the elements to the index
+     *
+     * @param elements -
+     */
+    public void addAll(Collection<A> elements) {
+        if (elements == null) return;
+
+        for (A element : elements) {
+            add(element);
+        }
+    }
+
+    /**
+     * Removes the element from the index, only if it is the element stored for its key
+     *
+     * @param element -
+     * @return true if the element was removed
+     */
+    public boolean remove(A element) {
+        K key = keyFunction.call(element);
+
+        if (!elementsByKey.containsKey(key)) return false;
+
+        A current = elementsByKey.get(key);
+        if (current == null ? element != null : !current.equals(element)) return false;
+
+        elementsByKey.remove(key);
+        return true;
+    }
+
+    /**
+     * Removes the element with the given key
+     *
+     * @param key -
+     * @return the removed element, or null if there was none
+     */
+    @Nullable
+    public A removeKey(K key) {
+        return elementsByKey.remove(key);
+    }
+
+    /**
+     * @return the number of elements in the index
+     */
+    public int size() {
+        return elementsByKey.size();
+    }
+
+    /**
+     * @return an unmodifiable view of the keys
+     */
+    public Set<K> keys() {
+        return Collections.unmodifiableSet(elementsByKey.keySet());
+    }
+
+    /**
+     * @return an unmodifiable view of the elements
+     */
+    public Collection<A> values() {
+        return Collections.unmodifiableCollection(elementsByKey.values());
+    }
+}
@@ -0,0 +1,53 @@
+package com.danieldisu;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Base class for the iterators of the lazy operations, subclasses only have to implement computeNext and call done
+ * when there are no more elements.
+ *
+ * @param <A> The type of the elements
+ */
+abstract class LazyIterator<A> implements Iterator<A> {
+
+    private static final int NOT_READY = 0;
+    private static final int READY = 1;
+    private static final int DONE = 2;
+
+    private int state = NOT_READY;
+    private A next;
+
+    /**
+     * Returns the next element, or calls done and returns null when there are no more elements
+     */
+    protected abstract A computeNext();
+
+    protected final A done() {
+        state = DONE;
+        return null;
+    }
+
+    @Override
+    public final boolean hasNext() {
+        if (state == NOT_READY) {
+            next = computeNext();
+            if (state != DONE) state = READY;
+        }
+        return state == READY;
+    }
+
+    @Override
+    public final A next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        A result = next;
+        next = null;
+        state = NOT_READY;
+        return result;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,164 @@
+package com.danieldisu;
+
+import java.util.HashMap;
+
+/**
+ * Bounded map that evicts the least frequently used entry, and the least recently added one among the entries with
+ * the same frequency. The entries are kept in a list of frequencies, each one with the list of its entries, so getting,
+ * adding and evicting are O(1). Not thread safe, used by the segments of MemoizedFunc1.
+ *
+ * @param <K> The type of the keys
+ * @param <V> The type of the values
+ */
+final class LfuMap<K, V> {
+
+    private static final class Node<K, V> {
+        final K key;
+        V value;
+        FrequencyList<K, V> list;
+        Node<K, V> previous;
+        Node<K, V> next;
+
+        Node(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    private static final class FrequencyList<K, V> {
+        final long frequency;
+        Node<K, V> oldest;
+        Node<K, V> newest;
+        FrequencyList<K, V> previous;
+        FrequencyList<K, V> next;
+
+        FrequencyList(long frequency) {
+            this.frequency = frequency;
+        }
+    }
+
+    private final int capacity;
+    private final HashMap<K, Node<K, V>> nodes;
+    private FrequencyList<K, V> lowest;
+
+    LfuMap(int capacity) {
+        this.capacity = capacity;
+        this.nodes = new HashMap<>();
+    }
+
+    /**
+     * Returns the value of the key and counts one more use of it, or null if the key is not in the map
+     */
+    V get(K key) {
+        Node<K, V> node = nodes.get(key);
+        if (node == null) return null;
+
+        increment(node);
+        return node.value;
+    }
+
+    /**
+     * Adds or replaces the value of the key, and returns true if another entry was evicted to make room for it
+     */
+    boolean put(K key, V value) {
+        Node<K, V> node = nodes.get(key);
+        if (node != null) {
+            node.value = value;
+            increment(node);
+            return false;
+        }
+
+        boolean evicted = false;
+        if (nodes.size() >= capacity) {
+            Node<K, V> victim = lowest.oldest;
+            unlink(victim);
+            nodes.remove(victim.key);
+            evicted = true;
+        }
+
+        node = new Node<>(key, value);
+        if (lowest == null || lowest.frequency != 1) {
+            FrequencyList<K, V> list = new FrequencyList<>(1);
+            list.next = lowest;
+            if (lowest != null) lowest.previous = list;
+            lowest = list;
+        }
+        append(lowest, node);
+        nodes.put(key, node);
+        return evicted;
+    }
+
+    V remove(K key) {
+        Node<K, V> node = nodes.remove(key);
+        if (node == null) return null;
+
+        unlink(node);
+        return node.value;
+    }
+
+    int size() {
+        return nodes.size();
+    }
+
+    void clear() {
+        nodes.clear();
+        lowest = null;
+    }
+
+    private void increment(Node<K, V> node) {
+        FrequencyList<K, V> current = node.list;
+        FrequencyList<K, V> next = current.next;
+
+        if (next == null || next.frequency != current.frequency + 1) {
+            next = new FrequencyList<>(current.frequency + 1);
+            next.previous = current;
+            next.next = current.next;
+            if (current.next != null) current.next.previous = next;
+            current.next = next;
+        }
+
+        unlink(node);
+        append(next, node);
+    }
+
+    private static <K, V> void append(FrequencyList<K, V> list, Node<K, V> node) {
+        node.list = list;
+        node.previous = list.newest;
+        node.next = null;
+        if (list.newest != null) {
+            list.newest.next = node;
+        } else {
+            list.oldest = node;
+        }
+        list.newest = node;
+    }
+
+    /**
+     * Removes the node from its frequency list, and the frequency list from the map if it is empty
+     */
+    private void unlink(Node<K, V> node) {
+        FrequencyList<K, V> list = node.list;
+
+        if (node.previous != null) {
+            node.previous.next = node.next;
+        } else {
+            list.oldest = node.next;
+        }
+        if (node.next != null) {
+            node.next.previous = node.previous;
+        } else {
+            list.newest = node.previous;
+        }
+        node.previous = null;
+        node.next = null;
+
+        if (list.oldest == null) {
+            if (list.previous != null) {
+                list.previous.next = list.next;
+            } else {
+                lowest = list.next;
+            }
+            if (list.next != null) list.next.previous = list.previous;
+        }
+    }
+}
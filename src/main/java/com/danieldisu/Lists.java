@@ -1,12 +1,35 @@
 package com.danieldisu;
 
 
+import com.danieldisu.functions.DoubleFunc1;
+import com.danieldisu.functions.IntFunc1;
+import com.danieldisu.functions.LongFunc1;
+import com.danieldisu.functions.Predicate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.math.BigDecimal;
+import java.math.MathContext;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.RandomAccess;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 
 import javax.annotation.Nullable;
 
@@ -26,15 +49,49 @@ public class Lists {
      * @return Returns a list of B elements.
      */
     public static <A, B> List<B> map(Collection<A> originalList, Func1<A, B> functionToApply) {
-        ArrayList<B> resultList = new ArrayList<>();
+        OperationRecorder recorder = Instrumentation.start("map", originalList);
+        if (recorder != null) functionToApply = recorder.time(functionToApply);
 
-        if (originalList == null || originalList.size() == 0) return resultList;
+        if (originalList == null || originalList.size() == 0) return finishList(recorder, new ArrayList<B>(), 0);
 
-        for (A element : originalList) {
+        ArrayList<B> resultList = new ArrayList<>(originalList.size());
+
+        if (isRandomAccessList(originalList)) {
+            List<A> list = (List<A>) originalList;
+            for (int i = 0, size = list.size(); i < size; i++) {
+                resultList.add(functionToApply.call(list.get(i)));
+            }
+        } else {
+            for (A element : originalList) {
+                resultList.add(functionToApply.call(element));
+            }
+        }
+
+        return finishList(recorder, resultList, originalList.size());
+    }
+
+    /**
+     * Same as map but for an array, so the elements are read directly from it
+     *
+     * @param originalArray   -
+     * @param functionToApply -
+     * @param <A>             The type of the elements of the original array
+     * @param <B>             The type of the elements of the returned list
+     * @return Returns a list of B elements.
+     */
+    public static <A, B> List<B> mapArray(A[] originalArray, Func1<A, B> functionToApply) {
+        OperationRecorder recorder = Instrumentation.start("map", lengthOf(originalArray));
+        if (recorder != null) functionToApply = recorder.time(functionToApply);
+
+        if (originalArray == null || originalArray.length == 0) return finishList(recorder, new ArrayList<B>(), 0);
+
+        ArrayList<B> resultList = new ArrayList<>(originalArray.length);
+
+        for (A element : originalArray) {
             resultList.add(functionToApply.call(element));
         }
 
-        return resultList;
+        return finishList(recorder, resultList, originalArray.length);
     }
 
     /**
@@ -48,15 +105,50 @@ public class Lists {
      * @return Returns a list of B elements.
      */
     public static <A, B> List<B> mapOrdered(List<A> originalList, Func2<A, Integer, B> functionToApply) {
-        ArrayList<B> resultList = new ArrayList<>();
+        OperationRecorder recorder = Instrumentation.start("mapOrdered", originalList);
+        if (recorder != null) functionToApply = recorder.time(functionToApply);
+
+        if (originalList == null || originalList.size() == 0) return finishList(recorder, new ArrayList<B>(), 0);
 
-        if (originalList == null || originalList.size() == 0) return resultList;
+        ArrayList<B> resultList = new ArrayList<>(originalList.size());
 
-        for (int i = 0; i < originalList.size(); i++) {
-            resultList.add(functionToApply.call(originalList.get(i), i));
+        if (originalList instanceof RandomAccess) {
+            for (int i = 0, size = originalList.size(); i < size; i++) {
+                resultList.add(functionToApply.call(originalList.get(i), i));
+            }
+        } else {
+            // get(i) is O(n) in sequential lists like LinkedList, so they are iterated counting the index
+            int index = 0;
+            for (A element : originalList) {
+                resultList.add(functionToApply.call(element, index++));
+            }
         }
 
-        return resultList;
+        return finishList(recorder, resultList, originalList.size());
+    }
+
+    /**
+     * Same as mapOrdered but for an array, so the elements are read directly from it
+     *
+     * @param originalArray   -
+     * @param functionToApply -
+     * @param <A>             The type of the elements of the original array
+     * @param <B>             The type of the elements of the returned list
+     * @return Returns a list of B elements.
+     */
+    public static <A, B> List<B> mapOrderedArray(A[] originalArray, Func2<A, Integer, B> functionToApply) {
+        OperationRecorder recorder = Instrumentation.start("mapOrdered", lengthOf(originalArray));
+        if (recorder != null) functionToApply = recorder.time(functionToApply);
+
+        if (originalArray == null || originalArray.length == 0) return finishList(recorder, new ArrayList<B>(), 0);
+
+        ArrayList<B> resultList = new ArrayList<>(originalArray.length);
+
+        for (int i = 0; i < originalArray.length; i++) {
+            resultList.add(functionToApply.call(originalArray[i], i));
+        }
+
+        return finishList(recorder, resultList, originalArray.length);
     }
 
     /**
@@ -70,16 +162,52 @@ public class Lists {
      * @return Returns a list of B elements.
      */
     public static <A, B> List<B> filteredMap(Collection<A> originalList, Func1<A, B> functionToApply) {
+        OperationRecorder recorder = Instrumentation.start("filteredMap", originalList);
+        if (recorder != null) functionToApply = recorder.time(functionToApply);
+
         ArrayList<B> resultList = new ArrayList<>();
 
-        if (originalList == null || originalList.size() == 0) return resultList;
+        if (originalList == null || originalList.size() == 0) return finishList(recorder, resultList, 0);
 
-        for (A element : originalList) {
+        if (isRandomAccessList(originalList)) {
+            List<A> list = (List<A>) originalList;
+            for (int i = 0, size = list.size(); i < size; i++) {
+                B result = functionToApply.call(list.get(i));
+                if (result != null) resultList.add(result);
+            }
+        } else {
+            for (A element : originalList) {
+                B result = functionToApply.call(element);
+                if (result != null) resultList.add(result);
+            }
+        }
+
+        return finishList(recorder, resultList, 0);
+    }
+
+    /**
+     * Same as filteredMap but for an array, so the elements are read directly from it
+     *
+     * @param originalArray   -
+     * @param functionToApply -
+     * @param <A>             The type of the elements of the original array
+     * @param <B>             The type of the elements of the returned list
+     * @return Returns a list of B elements.
+     */
+    public static <A, B> List<B> filteredMapArray(A[] originalArray, Func1<A, B> functionToApply) {
+        OperationRecorder recorder = Instrumentation.start("filteredMap", lengthOf(originalArray));
+        if (recorder != null) functionToApply = recorder.time(functionToApply);
+
+        ArrayList<B> resultList = new ArrayList<>();
+
+        if (originalArray == null || originalArray.length == 0) return finishList(recorder, resultList, 0);
+
+        for (A element : originalArray) {
             B result = functionToApply.call(element);
             if (result != null) resultList.add(result);
         }
 
-        return resultList;
+        return finishList(recorder, resultList, 0);
     }
 
     /**
@@ -96,9 +224,17 @@ public class Lists {
 
         if (checkIfListIsNullOrEmpty(originalList)) return null;
 
-        for (A element : originalList) {
-            B result = functionToApply.call(element);
-            if (result != null) return result;
+        if (isRandomAccessList(originalList)) {
+            List<A> list = (List<A>) originalList;
+            for (int i = 0, size = list.size(); i < size; i++) {
+                B result = functionToApply.call(list.get(i));
+                if (result != null) return result;
+            }
+        } else {
+            for (A element : originalList) {
+                B result = functionToApply.call(element);
+                if (result != null) return result;
+            }
         }
 
         return null;
@@ -115,8 +251,15 @@ public class Lists {
 
         if (checkIfListIsNullOrEmpty(originalList)) return;
 
-        for (A element : originalList) {
-            functionToApply.call(element);
+        if (isRandomAccessList(originalList)) {
+            List<A> list = (List<A>) originalList;
+            for (int i = 0, size = list.size(); i < size; i++) {
+                functionToApply.call(list.get(i));
+            }
+        } else {
+            for (A element : originalList) {
+                functionToApply.call(element);
+            }
         }
 
     }
@@ -132,16 +275,26 @@ public class Lists {
      * @return Returns a list of B elements.
      */
     public static <A, B> List<B> flatMap(Collection<A> originalList, Func1<A, List<B>> functionToApply) {
-        ArrayList<B> bElements = new ArrayList<>();
+        OperationRecorder recorder = Instrumentation.start("flatMap", originalList);
+        if (recorder != null) functionToApply = recorder.time(functionToApply);
 
-        if (checkIfListIsNullOrEmpty(originalList)) return bElements;
+        if (checkIfListIsNullOrEmpty(originalList)) return finishList(recorder, new ArrayList<B>(), 0);
 
-        for (A element : originalList) {
-            List<B> result = functionToApply.call(element);
-            bElements.addAll(result);
+        ArrayList<B> bElements = new ArrayList<>(originalList.size());
+
+        if (isRandomAccessList(originalList)) {
+            List<A> list = (List<A>) originalList;
+            for (int i = 0, size = list.size(); i < size; i++) {
+                bElements.addAll(functionToApply.call(list.get(i)));
+            }
+        } else {
+            for (A element : originalList) {
+                List<B> result = functionToApply.call(element);
+                bElements.addAll(result);
+            }
         }
 
-        return bElements;
+        return finishList(recorder, bElements, originalList.size());
     }
 
     /**
@@ -155,497 +308,2302 @@ public class Lists {
      * @return Returns a list of B elements.
      */
     public static <A, B> Set<B> flatMapUnique(List<A> originalList, Func1<A, Collection<B>> functionToApply) {
+        OperationRecorder recorder = Instrumentation.start("flatMapUnique", originalList);
+        if (recorder != null) functionToApply = recorder.time(functionToApply);
+
         HashSet<B> bElements = new HashSet<>();
 
-        if (checkIfListIsNullOrEmpty(originalList)) return bElements;
+        if (checkIfListIsNullOrEmpty(originalList)) return finishSet(recorder, bElements, 0);
 
         for (A element : originalList) {
             Collection<B> result = functionToApply.call(element);
             bElements.addAll(result);
         }
 
-        return bElements;
+        return finishSet(recorder, bElements, 0);
     }
 
     /**
+     * Removes the duplicated elements of the list keeping the first occurrence of each one, runs in linear time
+     *
      * @param originalList -
      * @param <A>          The type of the elements of the original list
      * @return Returns a list without duplicates
      */
     public static <A> List<A> distinct(List<A> originalList) {
+        OperationRecorder recorder = Instrumentation.start("distinct", originalList);
+
         ArrayList<A> filteredList = new ArrayList<>();
 
-        if (checkIfListIsNullOrEmpty(originalList)) return filteredList;
+        if (checkIfListIsNullOrEmpty(originalList)) return finishList(recorder, filteredList, 0);
+
+        HashSet<A> seen = new HashSet<>(hashCapacityFor(originalList.size()));
 
         for (A originalItem : originalList) {
-            if (!filteredList.contains(originalItem)) filteredList.add(originalItem);
+            if (seen.add(originalItem)) filteredList.add(originalItem);
         }
 
-        return filteredList;
+        return finishList(recorder, filteredList, 0);
     }
 
     /**
-     * Applies the function to each element of the list, if the functions returns true the element will be present in the returning
-     * list
+     * Removes the elements whose key has already been seen, keeping the first element of each key. Two elements are
+     * considered equivalent when the keys returned by the function are equal, so there is no need to wrap the elements
+     * to change their equals/hashCode.
      *
      * @param originalList -
-     * @param func         a func that returns true if the element should be in the returning list
+     * @param keyFunction  returns the key used to compare the elements
      * @param <A>          The type of the elements of the original list
-     * @return a list with all the elements that the result of the func was true
+     * @param <K>          The type of the keys
+     * @return Returns a list with the first element of each key, in the original order
      */
-    public static <A> List<A> filter(Collection<A> originalList, Func1<A, Boolean> func) {
+    public static <A, K> List<A> distinctBy(Collection<A> originalList, Func1<A, K> keyFunction) {
+        OperationRecorder recorder = Instrumentation.start("distinctBy", originalList);
+        if (recorder != null) keyFunction = recorder.time(keyFunction);
+
         ArrayList<A> filteredList = new ArrayList<>();
 
-        if (checkIfListIsNullOrEmpty(originalList)) return filteredList;
+        if (checkIfListIsNullOrEmpty(originalList)) return finishList(recorder, filteredList, 0);
+
+        HashSet<K> seenKeys = new HashSet<>(hashCapacityFor(originalList.size()));
 
         for (A element : originalList) {
-            boolean shouldInclude = func.call(element);
-            if (shouldInclude) filteredList.add(element);
+            if (seenKeys.add(keyFunction.call(element))) filteredList.add(element);
         }
 
-        return filteredList;
+        return finishList(recorder, filteredList, 0);
     }
 
     /**
-     * Applies a function to each element of the list and returns the index of the first element that passes the predicate
+     * Applies the function to each element of the list, if the functions returns true the element will be present in the returning
+     * list
      *
      * @param originalList -
      * @param func         a func that returns true if the element should be in the returning list
      * @param <A>          The type of the elements of the original list
-     * @return the index of the first element
+     * @return a list with all the elements that the result of the func was true
      */
-    public static <A> int indexOf(List<A> originalList, Func1<A, Boolean> func) {
-        if (checkIfListIsNullOrEmpty(originalList)) return -1;
+    public static <A> List<A> filter(Collection<A> originalList, Func1<A, Boolean> func) {
+        OperationRecorder recorder = Instrumentation.start("filter", originalList);
+        if (recorder != null) func = recorder.time(func);
+
+        ArrayList<A> filteredList = new ArrayList<>();
+
+        if (checkIfListIsNullOrEmpty(originalList)) return finishList(recorder, filteredList, 0);
 
-        for (int i = 0; i < originalList.size(); i++) {
-            boolean funcResult = func.call(originalList.get(i));
-            if (funcResult) return i;
+        if (isRandomAccessList(originalList)) {
+            List<A> list = (List<A>) originalList;
+            for (int i = 0, size = list.size(); i < size; i++) {
+                A element = list.get(i);
+                if (func.call(element)) filteredList.add(element);
+            }
+        } else {
+            for (A element : originalList) {
+                boolean shouldInclude = func.call(element);
+                if (shouldInclude) filteredList.add(element);
+            }
         }
 
-        return -1;
+        return finishList(recorder, filteredList, 0);
     }
 
     /**
-     * Map the original collection to a new collection without duplicates
+     * Same as filter but for an array, so the elements are read directly from it
      *
-     * @param originalList -
-     * @param func         -
-     * @param <A>          The type of the elements of the original list
-     * @param <B>          The type of the elements of the returned list
-     * @return
+     * @param originalArray -
+     * @param func          a func that returns true if the element should be in the returning list
+     * @param <A>           The type of the elements of the original array
+     * @return a list with all the elements that the result of the func was true
      */
-    public static <A, B> List<B> diff(List<A> originalList, Func1<A, B> func) {
-        ArrayList<B> resultList = new ArrayList<>();
+    public static <A> List<A> filterArray(A[] originalArray, Func1<A, Boolean> func) {
+        OperationRecorder recorder = Instrumentation.start("filter", lengthOf(originalArray));
+        if (recorder != null) func = recorder.time(func);
 
-        if (checkIfListIsNullOrEmpty(originalList)) return resultList;
+        ArrayList<A> filteredList = new ArrayList<>();
 
-        for (A element : originalList) {
-            B result = func.call(element);
-            if (!resultList.contains(result)) resultList.add(result);
+        if (originalArray == null || originalArray.length == 0) return finishList(recorder, filteredList, 0);
+
+        for (A element : originalArray) {
+            if (func.call(element)) filteredList.add(element);
         }
 
-        return resultList;
+        return finishList(recorder, filteredList, 0);
     }
 
     /**
-     * @param originalList -
-     * @param predicate    -
-     * @param <A>          The type of the elements of the original list
-     * @return Returns the first element that fulfill the predicate
+     * Same as map but the results are added to the given collection instead of a new list, the collection is not
+     * cleared so it can be reused by clearing it before calling this method
+     *
+     * @param originalList    -
+     * @param functionToApply -
+     * @param destination     the collection where the results are added
+     * @param <A>             The type of the elements of the original list
+     * @param <B>             The type of the results
+     * @param <C>             The type of the destination
+     * @return the destination
      */
-    @Nullable
-    public static <A> A find(Collection<A> originalList, Func1<A, Boolean> predicate) {
-
-        if (checkIfListIsNullOrEmpty(originalList)) return null;
+    public static <A, B, C extends Collection<? super B>> C mapInto(Collection<A> originalList, Func1<A, B> functionToApply,
+                                                                   C destination) {
+        if (checkIfListIsNullOrEmpty(originalList)) return destination;
 
         for (A element : originalList) {
-            boolean shouldInclude = predicate.call(element);
-            if (shouldInclude) return element;
+            destination.add(functionToApply.call(element));
         }
 
-        return null;
+        return destination;
     }
 
     /**
-     * find the first element that fulfill the predicate
+     * Same as map but the results are written to the given array, starting at the first position
      *
-     * @param originalList
-     * @param object
-     * @param <A>
-     * @return
+     * @param originalList    -
+     * @param functionToApply -
+     * @param destination     an array with room for all the results
+     * @param <A>             The type of the elements of the original list
+     * @param <B>             The type of the results
+     * @return the number of results written
+     * @throws IllegalArgumentException if the array is smaller than the list
      */
-    @Nullable
-    public static <A> A findByHashCode(Collection<A> originalList, Object object) {
+    public static <A, B> int mapInto(Collection<A> originalList, Func1<A, B> functionToApply, B[] destination) {
+        if (checkIfListIsNullOrEmpty(originalList)) return 0;
+
+        checkDestinationLength(destination, originalList.size());
+
+        int written = 0;
         for (A element : originalList) {
-            boolean equal = object.hashCode() == element.hashCode();
-            if (equal) return element;
+            destination[written++] = functionToApply.call(element);
         }
 
-        return null;
+        return written;
     }
 
     /**
-     * Find alias, this show the reader that the list may contain more than one element matching the predicate
+     * Same as map but each result is passed to the given sink instead of being added to a new list. It is not an
+     * overload of mapInto so a lambda sink is not ambiguous with the destination collection.
      *
-     * @param originalList -
-     * @param predicate    -
-     * @param <A>          The type of the elements of the original list
-     * @return Returns the first element that fulfill the predicate
+     * @param originalList    -
+     * @param functionToApply -
+     * @param sink            receives every result
+     * @param <A>             The type of the elements of the original list
+     * @param <B>             The type of the results
      */
-    @Nullable
-    public static <A> A first(List<A> originalList, Func1<A, Boolean> predicate) {
-        return find(originalList, predicate);
+    public static <A, B> void mapEach(Collection<A> originalList, Func1<A, B> functionToApply, Action1<? super B> sink) {
+        if (checkIfListIsNullOrEmpty(originalList)) return;
+
+        for (A element : originalList) {
+            sink.call(functionToApply.call(element));
+        }
     }
 
     /**
-     * @param originalList -
-     * @param predicate    -
-     * @param <A>          The type of the elements of the original list
-     * @return Returns true if any element matches the predicate
+     * Same as filteredMap but the non null results are added to the given collection instead of a new list, the
+     * collection is not cleared so it can be reused by clearing it before calling this method
+     *
+     * @param originalList    -
+     * @param functionToApply -
+     * @param destination     the collection where the results are added
+     * @param <A>             The type of the elements of the original list
+     * @param <B>             The type of the results
+     * @param <C>             The type of the destination
+     * @return the destination
      */
-    public static <A> boolean any(Collection<A> originalList, Func1<A, Boolean> predicate) {
-
-        if (checkIfListIsNullOrEmpty(originalList)) return false;
+    public static <A, B, C extends Collection<? super B>> C filteredMapInto(Collection<A> originalList,
+                                                                           Func1<A, B> functionToApply, C destination) {
+        if (checkIfListIsNullOrEmpty(originalList)) return destination;
 
         for (A element : originalList) {
-            boolean res = predicate.call(element);
-            if (res) return true;
+            B result = functionToApply.call(element);
+            if (result != null) destination.add(result);
         }
 
-        return false;
+        return destination;
     }
 
     /**
-     * @param originalList -
-     * @param predicate    -
-     * @param <A>          The type of the elements of the original list
-     * @return Returns true if ALL element matches the predicate
+     * Same as filteredMap but the non null results are written to the given array, starting at the first position
+     *
+     * @param originalList    -
+     * @param functionToApply -
+     * @param destination     an array with room for as many results as elements in the list
+     * @param <A>             The type of the elements of the original list
+     * @param <B>             The type of the results
+     * @return the number of results written
+     * @throws IllegalArgumentException if the array is smaller than the list
      */
-    public static <A> boolean all(Collection<A> originalList, Func1<A, Boolean> predicate) {
-        if (checkIfListIsNullOrEmpty(originalList)) return false;
+    public static <A, B> int filteredMapInto(Collection<A> originalList, Func1<A, B> functionToApply, B[] destination) {
+        if (checkIfListIsNullOrEmpty(originalList)) return 0;
 
-        for (A aElement : originalList) {
-            boolean res = predicate.call(aElement);
-            if (!res) return false;
+        checkDestinationLength(destination, originalList.size());
+
+        int written = 0;
+        for (A element : originalList) {
+            B result = functionToApply.call(element);
+            if (result != null) destination[written++] = result;
         }
 
-        return true;
+        return written;
     }
 
     /**
-     * This applies the function to each element of the list and returns the minimum value
+     * Same as filteredMap but each non null result is passed to the given sink instead of being added to a new list
      *
-     * @param originalList -
-     * @param func         -
-     * @param <A>          The type of the elements of the original list
-     * @return the minimum value
+     * @param originalList    -
+     * @param functionToApply -
+     * @param sink            receives every non null result
+     * @param <A>             The type of the elements of the original list
+     * @param <B>             The type of the results
      */
-    public static <A> int minInt(List<A> originalList, Func1<A, Integer> func) {
-        int min = Integer.MAX_VALUE;
-
-        if (checkIfListIsNullOrEmpty(originalList)) return 0;
+    public static <A, B> void filteredMapEach(Collection<A> originalList, Func1<A, B> functionToApply,
+                                              Action1<? super B> sink) {
+        if (checkIfListIsNullOrEmpty(originalList)) return;
 
-        for (A aElement : originalList) {
-            Integer integer = func.call(aElement);
-            min = Math.min(integer, min);
+        for (A element : originalList) {
+            B result = functionToApply.call(element);
+            if (result != null) sink.call(result);
         }
-
-        return min;
     }
 
     /**
-     * minInt alias
+     * Same as filter but the elements are added to the given collection instead of a new list, the collection is not
+     * cleared so it can be reused by clearing it before calling this method
      *
      * @param originalList -
-     * @param func         -
+     * @param func         a func that returns true if the element should be added to the destination
+     * @param destination  the collection where the elements are added
      * @param <A>          The type of the elements of the original list
-     * @return the minimum value
+     * @param <C>          The type of the destination
+     * @return the destination
      */
-    public static <A> int min(List<A> originalList, Func1<A, Integer> func) {
-        return minInt(originalList, func);
+    public static <A, C extends Collection<? super A>> C filterInto(Collection<A> originalList, Func1<A, Boolean> func,
+                                                                   C destination) {
+        if (checkIfListIsNullOrEmpty(originalList)) return destination;
+
+        for (A element : originalList) {
+            boolean shouldInclude = func.call(element);
+            if (shouldInclude) destination.add(element);
+        }
+
+        return destination;
     }
 
     /**
-     * This applies the function to each element of the list and returns the minimum value
+     * Same as filter but the elements are written to the given array, starting at the first position
      *
      * @param originalList -
-     * @param func         -
+     * @param func         a func that returns true if the element should be written to the destination
+     * @param destination  an array with room for as many elements as the list has
      * @param <A>          The type of the elements of the original list
-     * @return the minimum value
+     * @return the number of elements written
+     * @throws IllegalArgumentException if the array is smaller than the list
      */
-    public static <A> BigDecimal minBigDecimal(List<A> originalList, Func1<A, BigDecimal> func) {
-        BigDecimal min = new BigDecimal(Integer.MAX_VALUE);
+    public static <A> int filterInto(Collection<A> originalList, Func1<A, Boolean> func, A[] destination) {
+        if (checkIfListIsNullOrEmpty(originalList)) return 0;
 
-        if (checkIfListIsNullOrEmpty(originalList)) return BigDecimal.ZERO;
+        checkDestinationLength(destination, originalList.size());
 
-        for (A aElement : originalList) {
-            BigDecimal element = func.call(aElement);
-            min = element.min(min);
+        int written = 0;
+        for (A element : originalList) {
+            boolean shouldInclude = func.call(element);
+            if (shouldInclude) destination[written++] = element;
         }
 
-        return min;
+        return written;
     }
 
     /**
-     * This turns a list of elements into a list of strings using .toString
+     * Same as filter but each matching element is passed to the given sink instead of being added to a new list
      *
-     * @param originalList
-     * @return
+     * @param originalList -
+     * @param func         a func that returns true if the element should be passed to the sink
+     * @param sink         receives every matching element
+     * @param <A>          The type of the elements of the original list
      */
-    public static List<String> toListString(List<?> originalList) {
-        ArrayList<String> resultList = new ArrayList<>();
+    public static <A> void filterEach(Collection<A> originalList, Func1<A, Boolean> func, Action1<? super A> sink) {
+        if (checkIfListIsNullOrEmpty(originalList)) return;
 
-        if (checkIfListIsNullOrEmpty(originalList)) return resultList;
+        for (A element : originalList) {
+            boolean shouldInclude = func.call(element);
+            if (shouldInclude) sink.call(element);
+        }
+    }
 
+    /**
+     * Same as flatMap but the elements are added to the given collection instead of a new list, the collection is not
+     * cleared so it can be reused by clearing it before calling this method
+     *
+     * @param originalList    -
+     * @param functionToApply -
+     * @param destination     the collection where the elements are added
+     * @param <A>             The type of the elements of the original list
+     * @param <B>             The type of the elements of the lists returned by the function
+     * @param <C>             The type of the destination
+     * @return the destination
+     */
+    public static <A, B, C extends Collection<? super B>> C flatMapInto(Collection<A> originalList,
+                                                                       Func1<A, List<B>> functionToApply, C destination) {
+        if (checkIfListIsNullOrEmpty(originalList)) return destination;
 
-        for (Object selectable : originalList) {
-            resultList.add(selectable.toString());
+        for (A element : originalList) {
+            destination.addAll(functionToApply.call(element));
         }
 
-        return resultList;
+        return destination;
     }
 
     /**
-     * This applies the function to each element of the list and returns the maximum value
+     * Same as flatMap but the elements are passed to the given sink instead of being added to a new list
      *
-     * @param originalList -
-     * @param func         -
+     * @param originalList    -
+     * @param functionToApply -
+     * @param sink            receives every element of the returned lists
+     * @param <A>             The type of the elements of the original list
+     * @param <B>             The type of the elements of the lists returned by the function
+     */
+    public static <A, B> void flatMapEach(Collection<A> originalList, Func1<A, List<B>> functionToApply,
+                                          Action1<? super B> sink) {
+        if (checkIfListIsNullOrEmpty(originalList)) return;
+
+        for (A element : originalList) {
+            List<B> result = functionToApply.call(element);
+            for (B bElement : result) {
+                sink.call(bElement);
+            }
+        }
+    }
+
+    /**
+     * Applies a function to each element of the list and returns the index of the first element that passes the predicate
+     *
+     * @param originalList -
+     * @param func         a func that returns true if the element should be in the returning list
+     * @param <A>          The type of the elements of the original list
+     * @return the index of the first element
+     */
+    public static <A> int indexOf(List<A> originalList, Func1<A, Boolean> func) {
+        if (checkIfListIsNullOrEmpty(originalList)) return -1;
+
+        if (originalList instanceof RandomAccess) {
+            for (int i = 0, size = originalList.size(); i < size; i++) {
+                boolean funcResult = func.call(originalList.get(i));
+                if (funcResult) return i;
+            }
+        } else {
+            // get(i) is O(n) in sequential lists like LinkedList, so they are iterated counting the index
+            int index = 0;
+            for (A element : originalList) {
+                if (func.call(element)) return index;
+                index++;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Same as indexOf but for an array, so the elements are read directly from it
+     *
+     * @param originalArray -
+     * @param func          -
+     * @param <A>           The type of the elements of the original array
+     * @return the index of the first element that passes the predicate, or -1
+     */
+    public static <A> int indexOfArray(A[] originalArray, Func1<A, Boolean> func) {
+        if (originalArray == null) return -1;
+
+        for (int i = 0; i < originalArray.length; i++) {
+            if (func.call(originalArray[i])) return i;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Map the original collection to a new collection without duplicates, the results keep the order in which they
+     * were first returned by the function
+     *
+     * @param originalList -
+     * @param func         -
+     * @param <A>          The type of the elements of the original list
+     * @param <B>          The type of the elements of the returned list
+     * @return
+     */
+    public static <A, B> List<B> diff(List<A> originalList, Func1<A, B> func) {
+        OperationRecorder recorder = Instrumentation.start("diff", originalList);
+        if (recorder != null) func = recorder.time(func);
+
+        ArrayList<B> resultList = new ArrayList<>();
+
+        if (checkIfListIsNullOrEmpty(originalList)) return finishList(recorder, resultList, 0);
+
+        HashSet<B> seen = new HashSet<>(hashCapacityFor(originalList.size()));
+
+        for (A element : originalList) {
+            B result = func.call(element);
+            if (seen.add(result)) resultList.add(result);
+        }
+
+        return finishList(recorder, resultList, 0);
+    }
+
+    /**
+     * @param originalList -
+     * @param predicate    -
+     * @param <A>          The type of the elements of the original list
+     * @return Returns the first element that fulfill the predicate
+     */
+    @Nullable
+    public static <A> A find(Collection<A> originalList, Func1<A, Boolean> predicate) {
+
+        if (checkIfListIsNullOrEmpty(originalList)) return null;
+
+        if (isRandomAccessList(originalList)) {
+            List<A> list = (List<A>) originalList;
+            for (int i = 0, size = list.size(); i < size; i++) {
+                A element = list.get(i);
+                if (predicate.call(element)) return element;
+            }
+        } else {
+            for (A element : originalList) {
+                boolean shouldInclude = predicate.call(element);
+                if (shouldInclude) return element;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * find the first element that fulfill the predicate. This scans the whole list on every call, use indexByHashCode
+     * when looking up many objects in the same list
+     *
+     * @param originalList
+     * @param object
+     * @param <A>
+     * @return
+     */
+    @Nullable
+    public static <A> A findByHashCode(Collection<A> originalList, Object object) {
+        for (A element : originalList) {
+            boolean equal = object.hashCode() == element.hashCode();
+            if (equal) return element;
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns an index of the elements by their hash code, index.first(object.hashCode()) returns the same element as
+     * findByHashCode(originalList, object) in O(1)
+     *
+     * @param originalList -
+     * @param <A>          The type of the elements of the original list
+     * @return the index
+     */
+    public static <A> GroupIndex<Integer, A> indexByHashCode(Collection<A> originalList) {
+        return groupBy(originalList, new Func1<A, Integer>() {
+            @Override
+            public Integer call(A element) {
+                return element.hashCode();
+            }
+        });
+    }
+
+    /**
+     * Builds an index of the elements by the key returned by the function in one pass, so the elements can be looked
+     * up by key in O(1) instead of calling find in a loop. When several elements have the same key the last one is
+     * kept, use groupBy when the keys are not unique.
+     *
+     * @param originalList -
+     * @param keyFunction  returns the key of an element
+     * @param <A>          The type of the elements of the original list
+     * @param <K>          The type of the keys
+     * @return the index, which can be updated by adding and removing elements
+     */
+    public static <A, K> KeyIndex<K, A> keyBy(Collection<A> originalList, Func1<A, K> keyFunction) {
+        KeyIndex<K, A> index = new KeyIndex<>(keyFunction, originalList == null ? 0 : originalList.size());
+        index.addAll(originalList);
+        return index;
+    }
+
+    /**
+     * Builds an index of the elements grouped by the key returned by the function in one pass, so all the elements
+     * with a key can be got in O(1) instead of calling filter in a loop
+     *
+     * @param originalList -
+     * @param keyFunction  returns the key of an element
+     * @param <A>          The type of the elements of the original list
+     * @param <K>          The type of the keys
+     * @return the index, which can be updated by adding and removing elements
+     */
+    public static <A, K> GroupIndex<K, A> groupBy(Collection<A> originalList, Func1<A, K> keyFunction) {
+        GroupIndex<K, A> index = new GroupIndex<>(keyFunction, originalList == null ? 0 : originalList.size());
+        index.addAll(originalList);
+        return index;
+    }
+
+    /**
+     * Find alias, this show the reader that the list may contain more than one element matching the predicate
+     *
+     * @param originalList -
+     * @param predicate    -
+     * @param <A>          The type of the elements of the original list
+     * @return Returns the first element that fulfill the predicate
+     */
+    @Nullable
+    public static <A> A first(List<A> originalList, Func1<A, Boolean> predicate) {
+        return find(originalList, predicate);
+    }
+
+    /**
+     * @param originalList -
+     * @param predicate    -
+     * @param <A>          The type of the elements of the original list
+     * @return Returns true if any element matches the predicate
+     */
+    public static <A> boolean any(Collection<A> originalList, Func1<A, Boolean> predicate) {
+
+        if (checkIfListIsNullOrEmpty(originalList)) return false;
+
+        if (isRandomAccessList(originalList)) {
+            List<A> list = (List<A>) originalList;
+            for (int i = 0, size = list.size(); i < size; i++) {
+                if (predicate.call(list.get(i))) return true;
+            }
+        } else {
+            for (A element : originalList) {
+                boolean res = predicate.call(element);
+                if (res) return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * @param originalList -
+     * @param predicate    -
+     * @param <A>          The type of the elements of the original list
+     * @return Returns true if ALL element matches the predicate
+     */
+    public static <A> boolean all(Collection<A> originalList, Func1<A, Boolean> predicate) {
+        if (checkIfListIsNullOrEmpty(originalList)) return false;
+
+        if (isRandomAccessList(originalList)) {
+            List<A> list = (List<A>) originalList;
+            for (int i = 0, size = list.size(); i < size; i++) {
+                if (!predicate.call(list.get(i))) return false;
+            }
+        } else {
+            for (A aElement : originalList) {
+                boolean res = predicate.call(aElement);
+                if (!res) return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * This applies the function to each element of the list and returns the minimum value
+     *
+     * @param originalList -
+     * @param func         -
+     * @param <A>          The type of the elements of the original list
+     * @return the minimum value
+     */
+    public static <A> int minInt(List<A> originalList, Func1<A, Integer> func) {
+        int min = Integer.MAX_VALUE;
+
+        if (checkIfListIsNullOrEmpty(originalList)) return 0;
+
+        for (A aElement : originalList) {
+            Integer integer = func.call(aElement);
+            min = Math.min(integer, min);
+        }
+
+        return min;
+    }
+
+    /**
+     * minInt alias
+     *
+     * @param originalList -
+     * @param func         -
+     * @param <A>          The type of the elements of the original list
+     * @return the minimum value
+     */
+    public static <A> int min(List<A> originalList, Func1<A, Integer> func) {
+        return minInt(originalList, func);
+    }
+
+    /**
+     * This applies the function to each element of the list and returns the minimum value, when several values are
+     * equal (like 1.0 and 1.00) the last one is returned
+     *
+     * @param originalList -
+     * @param func         -
+     * @param <A>          The type of the elements of the original list
+     * @return the minimum value, 0 if the list is empty
+     */
+    public static <A> BigDecimal minBigDecimal(List<A> originalList, Func1<A, BigDecimal> func) {
+        if (checkIfListIsNullOrEmpty(originalList)) return BigDecimal.ZERO;
+
+        BigDecimal min = null;
+
+        for (A aElement : originalList) {
+            BigDecimal element = func.call(aElement);
+            min = min == null ? element : element.min(min);
+        }
+
+        return min;
+    }
+
+    /**
+     * This applies the function to each element of the list and returns the maximum value, when several values are
+     * equal (like 1.0 and 1.00) the last one is returned
+     *
+     * @param originalList -
+     * @param func         -
+     * @param <A>          The type of the elements of the original list
+     * @return the maximum value, 0 if the list is empty
+     */
+    public static <A> BigDecimal maxBigDecimal(List<A> originalList, Func1<A, BigDecimal> func) {
+        if (checkIfListIsNullOrEmpty(originalList)) return BigDecimal.ZERO;
+
+        BigDecimal max = null;
+
+        for (A aElement : originalList) {
+            BigDecimal element = func.call(aElement);
+            max = max == null ? element : element.max(max);
+        }
+
+        return max;
+    }
+
+    /**
+     * This turns a list of elements into a list of strings using .toString
+     *
+     * @param originalList
+     * @return
+     */
+    public static List<String> toListString(List<?> originalList) {
+        if (checkIfListIsNullOrEmpty(originalList)) return new ArrayList<>();
+
+        ArrayList<String> resultList = new ArrayList<>(originalList.size());
+
+        for (Object selectable : originalList) {
+            resultList.add(selectable.toString());
+        }
+
+        return resultList;
+    }
+
+    /**
+     * This applies the function to each element of the list and returns the maximum value
+     *
+     * @param originalList -
+     * @param func         -
+     * @param <A>          The type of the elements of the original list
+     * @return the maximum value
+     */
+    public static <A> int maxInt(List<A> originalList, Func1<A, Integer> func) {
+        int max = Integer.MIN_VALUE;
+
+        if (checkIfListIsNullOrEmpty(originalList)) return 0;
+
+        for (A aElement : originalList) {
+            Integer element = func.call(aElement);
+            max = Math.max(element, max);
+        }
+
+        return max;
+    }
+
+    /**
+     * Returns the smallest element according to the comparator, the first one if there are several
+     *
+     * @param originalList -
+     * @param comparator   -
+     * @param <A>          The type of the elements of the original list
+     * @return the smallest element, or null if the list is empty
+     */
+    @Nullable
+    public static <A> A minBy(Collection<A> originalList, Comparator<? super A> comparator) {
+        if (checkIfListIsNullOrEmpty(originalList)) return null;
+
+        Iterator<A> iterator = originalList.iterator();
+        A min = iterator.next();
+
+        while (iterator.hasNext()) {
+            A element = iterator.next();
+            if (comparator.compare(element, min) < 0) min = element;
+        }
+
+        return min;
+    }
+
+    /**
+     * Returns the biggest element according to the comparator, the first one if there are several
+     *
+     * @param originalList -
+     * @param comparator   -
+     * @param <A>          The type of the elements of the original list
+     * @return the biggest element, or null if the list is empty
+     */
+    @Nullable
+    public static <A> A maxBy(Collection<A> originalList, Comparator<? super A> comparator) {
+        if (checkIfListIsNullOrEmpty(originalList)) return null;
+
+        Iterator<A> iterator = originalList.iterator();
+        A max = iterator.next();
+
+        while (iterator.hasNext()) {
+            A element = iterator.next();
+            if (comparator.compare(element, max) > 0) max = element;
+        }
+
+        return max;
+    }
+
+    /**
+     * Returns the element with the smallest key, the first one if there are several. Unlike minOfInt it returns the
+     * element instead of the key.
+     *
+     * @param originalList -
+     * @param func         returns the key of an element
+     * @param <A>          The type of the elements of the original list
+     * @return the element with the smallest key, or null if the list is empty
+     */
+    @Nullable
+    public static <A> A minByInt(Collection<A> originalList, IntFunc1<A> func) {
+        if (checkIfListIsNullOrEmpty(originalList)) return null;
+
+        Iterator<A> iterator = originalList.iterator();
+        A min = iterator.next();
+        int minKey = func.call(min);
+
+        while (iterator.hasNext()) {
+            A element = iterator.next();
+            int key = func.call(element);
+            if (key < minKey) {
+                min = element;
+                minKey = key;
+            }
+        }
+
+        return min;
+    }
+
+    /**
+     * Returns the element with the biggest key, the first one if there are several. Unlike maxOfInt it returns the
+     * element instead of the key.
+     *
+     * @param originalList -
+     * @param func         returns the key of an element
+     * @param <A>          The type of the elements of the original list
+     * @return the element with the biggest key, or null if the list is empty
+     */
+    @Nullable
+    public static <A> A maxByInt(Collection<A> originalList, IntFunc1<A> func) {
+        if (checkIfListIsNullOrEmpty(originalList)) return null;
+
+        Iterator<A> iterator = originalList.iterator();
+        A max = iterator.next();
+        int maxKey = func.call(max);
+
+        while (iterator.hasNext()) {
+            A element = iterator.next();
+            int key = func.call(element);
+            if (key > maxKey) {
+                max = element;
+                maxKey = key;
+            }
+        }
+
+        return max;
+    }
+
+    /**
+     * Returns the k biggest elements according to the comparator, from the biggest to the smallest. Keeps a heap of k
+     * elements instead of sorting the whole list, so it takes O(n log k) time and O(k) memory. Equal elements keep
+     * their original order, the result is the same as a stable sort followed by taking the first k elements.
+     *
+     * @param originalList -
+     * @param k            the number of elements to return
+     * @param comparator   -
+     * @param <A>          The type of the elements of the original list
+     * @return a new list with at most k elements
+     */
+    public static <A> List<A> topK(Collection<A> originalList, int k, Comparator<? super A> comparator) {
+        if (k < 0) throw new IllegalArgumentException("k must not be negative: " + k);
+        if (k == 0 || checkIfListIsNullOrEmpty(originalList)) return new ArrayList<>();
+
+        Comparator<RankedElement<A>> byRank = RankedElement.byRank(comparator);
+        PriorityQueue<RankedElement<A>> heap = new PriorityQueue<>(Math.min(k, originalList.size()), byRank);
+
+        int index = 0;
+        for (A element : originalList) {
+            if (heap.size() < k) {
+                heap.add(new RankedElement<>(element, index));
+            } else if (comparator.compare(element, heap.peek().element) > 0) {
+                heap.poll();
+                heap.add(new RankedElement<>(element, index));
+            }
+            index++;
+        }
+
+        ArrayList<RankedElement<A>> ranked = new ArrayList<>(heap);
+        Collections.sort(ranked, Collections.reverseOrder(byRank));
+
+        ArrayList<A> result = new ArrayList<>(ranked.size());
+        for (RankedElement<A> rankedElement : ranked) {
+            result.add(rankedElement.element);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the k smallest elements according to the comparator, from the smallest to the biggest. Keeps a heap of k
+     * elements instead of sorting the whole list, so it takes O(n log k) time and O(k) memory. Equal elements keep
+     * their original order like in topK.
+     *
+     * @param originalList -
+     * @param k            the number of elements to return
+     * @param comparator   -
+     * @param <A>          The type of the elements of the original list
+     * @return a new list with at most k elements
+     */
+    public static <A> List<A> bottomK(Collection<A> originalList, int k, Comparator<? super A> comparator) {
+        return topK(originalList, k, Collections.reverseOrder(comparator));
+    }
+
+    /**
+     * Returns the k elements with the biggest keys, from the biggest key to the smallest. The keys are computed once
+     * per element and are not boxed. Elements with the same key keep their original order.
+     *
+     * @param originalList -
+     * @param k            the number of elements to return
+     * @param func         returns the key of an element
+     * @param <A>          The type of the elements of the original list
+     * @return a new list with at most k elements
+     */
+    public static <A> List<A> topKByInt(Collection<A> originalList, int k, IntFunc1<A> func) {
+        return selectKByInt(originalList, k, func, true);
+    }
+
+    /**
+     * Returns the k elements with the smallest keys, from the smallest key to the biggest. The keys are computed once
+     * per element and are not boxed. Elements with the same key keep their original order.
+     *
+     * @param originalList -
+     * @param k            the number of elements to return
+     * @param func         returns the key of an element
+     * @param <A>          The type of the elements of the original list
+     * @return a new list with at most k elements
+     */
+    public static <A> List<A> bottomKByInt(Collection<A> originalList, int k, IntFunc1<A> func) {
+        return selectKByInt(originalList, k, func, false);
+    }
+
+    private static <A> List<A> selectKByInt(Collection<A> originalList, int k, IntFunc1<A> func, boolean biggest) {
+        if (k < 0) throw new IllegalArgumentException("k must not be negative: " + k);
+        if (k == 0 || checkIfListIsNullOrEmpty(originalList)) return new ArrayList<>();
+
+        IntKeyHeap<A> heap = new IntKeyHeap<>(Math.min(k, originalList.size()), biggest);
+
+        for (A element : originalList) {
+            heap.offer(element, func.call(element));
+        }
+
+        return heap.drainBestFirst();
+    }
+
+    /**
+     * Returns the element that would be at the given position if the list was sorted, without sorting it. Uses
+     * quickselect on a copy of the list, so it takes O(n) time on average and the list is not modified.
+     *
+     * @param originalList -
+     * @param n            the position in the sorted list, starting at 0
+     * @param comparator   -
+     * @param <A>          The type of the elements of the original list
+     * @return the nth smallest element
+     * @throws IndexOutOfBoundsException if n is not a valid index of the list
+     */
+    @SuppressWarnings("unchecked")
+    public static <A> A nth(Collection<A> originalList, int n, Comparator<? super A> comparator) {
+        int size = originalList == null ? 0 : originalList.size();
+        if (n < 0 || n >= size) throw new IndexOutOfBoundsException("Index: " + n + ", Size: " + size);
+
+        Object[] elements = originalList.toArray();
+        int from = 0;
+        int to = elements.length - 1;
+
+        while (from < to) {
+            A pivot = (A) medianOfThree(elements, from, to, comparator);
+
+            // three way partition: [from, lower) < pivot, [lower, upper] == pivot, (upper, to] > pivot
+            int lower = from;
+            int upper = to;
+            int i = from;
+            while (i <= upper) {
+                int comparison = comparator.compare((A) elements[i], pivot);
+                if (comparison < 0) {
+                    swap(elements, lower++, i++);
+                } else if (comparison > 0) {
+                    swap(elements, i, upper--);
+                } else {
+                    i++;
+                }
+            }
+
+            if (n < lower) {
+                to = lower - 1;
+            } else if (n > upper) {
+                from = upper + 1;
+            } else {
+                return pivot;
+            }
+        }
+
+        return (A) elements[n];
+    }
+
+    /**
+     * Returns the median element according to the comparator, the lower one of the two middle elements if the list has
+     * an even number of elements. Uses nth, so the list is not sorted nor modified.
+     *
+     * @param originalList -
+     * @param comparator   -
+     * @param <A>          The type of the elements of the original list
+     * @return the median element, or null if the list is empty
+     */
+    @Nullable
+    public static <A> A median(Collection<A> originalList, Comparator<? super A> comparator) {
+        if (checkIfListIsNullOrEmpty(originalList)) return null;
+
+        return nth(originalList, (originalList.size() - 1) / 2, comparator);
+    }
+
+    /**
+     * Sorts the elements by the natural order of their keys. The key of each element is computed once and kept next to
+     * it while sorting, instead of calling the key function twice per comparison like a comparator that extracts the
+     * keys would do. The sort is stable, elements with equal keys keep their original order.
+     *
+     * @param originalList -
+     * @param keyFunction  returns the key of an element, it must not return null
+     * @param <A>          The type of the elements of the original list
+     * @param <K>          The type of the keys
+     * @return a new list with the elements sorted by their keys
+     */
+    public static <A, K extends Comparable<? super K>> List<A> sortBy(Collection<A> originalList,
+                                                                       Func1<A, K> keyFunction) {
+        return sortBy(originalList, keyFunction, Sorting.<K>naturalOrder());
+    }
+
+    /**
+     * Same as sortBy but the keys are compared with the given comparator
+     *
+     * @param originalList -
+     * @param keyFunction  returns the key of an element
+     * @param comparator   compares the keys
+     * @param <A>          The type of the elements of the original list
+     * @param <K>          The type of the keys
+     * @return a new list with the elements sorted by their keys
+     */
+    public static <A, K> List<A> sortBy(Collection<A> originalList, Func1<A, K> keyFunction,
+                                        Comparator<? super K> comparator) {
+        if (checkIfListIsNullOrEmpty(originalList)) return new ArrayList<>();
+
+        @SuppressWarnings("unchecked")
+        Sorting.Keyed<K>[] keyed = (Sorting.Keyed<K>[]) new Sorting.Keyed<?>[originalList.size()];
+        int position = 0;
+        for (A element : originalList) {
+            keyed[position++] = new Sorting.Keyed<>(keyFunction.call(element), element);
+        }
+
+        Arrays.sort(keyed, Sorting.Keyed.<K>byKey(comparator));
+        return Sorting.elementsOf(keyed);
+    }
+
+    /**
+     * Sorts the elements by a primitive int key with a radix sort, which takes O(n) time instead of O(n log n) and
+     * does not box the keys. Keys in a small range are sorted faster, the passes over the bytes that are the same in
+     * all the keys are skipped. The sort is stable, elements with equal keys keep their original order.
+     *
+     * @param originalList -
+     * @param keyFunction  returns the key of an element
+     * @param <A>          The type of the elements of the original list
+     * @return a new list with the elements sorted by their keys, from the smallest to the biggest
+     */
+    public static <A> List<A> sortByInt(Collection<A> originalList, IntFunc1<A> keyFunction) {
+        if (checkIfListIsNullOrEmpty(originalList)) return new ArrayList<>();
+
+        int[] keys = new int[originalList.size()];
+        Object[] elements = new Object[keys.length];
+        int position = 0;
+        for (A element : originalList) {
+            keys[position] = keyFunction.call(element);
+            elements[position++] = element;
+        }
+
+        return Sorting.toList(Sorting.byIntKeys(keys, elements));
+    }
+
+    /**
+     * Same as sortByInt with a primitive long key
+     *
+     * @param originalList -
+     * @param keyFunction  returns the key of an element
+     * @param <A>          The type of the elements of the original list
+     * @return a new list with the elements sorted by their keys, from the smallest to the biggest
+     */
+    public static <A> List<A> sortByLong(Collection<A> originalList, LongFunc1<A> keyFunction) {
+        if (checkIfListIsNullOrEmpty(originalList)) return new ArrayList<>();
+
+        long[] keys = new long[originalList.size()];
+        Object[] elements = new Object[keys.length];
+        int position = 0;
+        for (A element : originalList) {
+            keys[position] = keyFunction.call(element);
+            elements[position++] = element;
+        }
+
+        return Sorting.toList(Sorting.byLongKeys(keys, elements));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <A> Object medianOfThree(Object[] elements, int from, int to, Comparator<? super A> comparator) {
+        A first = (A) elements[from];
+        A middle = (A) elements[(from + to) >>> 1];
+        A last = (A) elements[to];
+
+        if (comparator.compare(first, middle) > 0) {
+            A temp = first;
+            first = middle;
+            middle = temp;
+        }
+        if (comparator.compare(middle, last) > 0) {
+            middle = last;
+            if (comparator.compare(first, middle) > 0) middle = first;
+        }
+        return middle;
+    }
+
+    private static void swap(Object[] elements, int index1, int index2) {
+        Object element = elements[index1];
+        elements[index1] = elements[index2];
+        elements[index2] = element;
+    }
+
+    /**
+     * Returns a list containing the given elements
+     *
+     * @param elements -
+     * @param <T>      The type of the elements of the original list
+     * @return the list
+     */
+    @SafeVarargs
+    public static <T> List<T> of(T... elements) {
+        ArrayList<T> list = new ArrayList<T>(elements.length);
+
+        for (T element : elements) {
+            list.add(element);
+        }
+        return list;
+    }
+
+    /**
+     * Returns the sum of the elements
+     *
+     * @param originalList -
+     * @return the sum
+     */
+    public static int sum(Collection<Integer> originalList) {
+        int total = 0;
+
+        if (checkIfListIsNullOrEmpty(originalList)) return total;
+
+        for (Integer element : originalList) {
+            total += element;
+        }
+
+        return total;
+    }
+
+    /**
+     * This applies the function to each element of the list and returns the sum of the elements
+     *
+     * @param originalList -
+     * @param func         -
+     * @param <A>          The type of the elements of the original list
+     * @return the maximum value
+     */
+    public static <A> int sum(List<A> originalList, Func1<A, Integer> func) {
+        int total = 0;
+
+        if (checkIfListIsNullOrEmpty(originalList)) return total;
+
+        for (A aElement : originalList) {
+            Integer element = func.call(aElement);
+            total += element;
+        }
+
+        return total;
+    }
+
+    /**
+     * This applies the function to each element of the list and returns the sum of the elements
+     *
+     * @param originalList -
+     * @param func         -
+     * @param <A>          The type of the elements of the original list
+     * @return the sum of the values
+     */
+    public static <A> BigDecimal sumBigDecimal(List<A> originalList, Func1<A, BigDecimal> func) {
+        if (checkIfListIsNullOrEmpty(originalList)) return BigDecimal.ZERO;
+
+        BigDecimalSum total = new BigDecimalSum();
+
+        for (A aElement : originalList) {
+            total.add(func.call(aElement));
+        }
+
+        return total.sum();
+    }
+
+    /**
+     * This applies the function to each element of the list and returns the average of the values, the sum is exact
+     * and it is only rounded when it is divided by the number of elements
+     *
+     * @param originalList -
+     * @param func         -
+     * @param mathContext  the precision and rounding used in the division
+     * @param <A>          The type of the elements of the original list
+     * @return the average of the values, 0 if the list is empty
+     */
+    public static <A> BigDecimal averageBigDecimal(List<A> originalList, Func1<A, BigDecimal> func, MathContext mathContext) {
+        if (checkIfListIsNullOrEmpty(originalList)) return BigDecimal.ZERO;
+
+        return sumBigDecimal(originalList, func).divide(BigDecimal.valueOf(originalList.size()), mathContext);
+    }
+
+    /**
+     * This applies the function to each element of the list and returns the number of elements that matches the predicate
+     *
+     * @param originalList -
+     * @param predicate    -
+     * @param <A>          The type of the elements of the original list
+     * @return the number of elements that matches the predicate
+     */
+    public static <A> int count(Collection<A> originalList, Func1<A, Boolean> predicate) {
+        int count = 0;
+
+        if (checkIfListIsNullOrEmpty(originalList)) return count;
+
+        if (isRandomAccessList(originalList)) {
+            List<A> list = (List<A>) originalList;
+            for (int i = 0, size = list.size(); i < size; i++) {
+                if (predicate.call(list.get(i))) count++;
+            }
+        } else {
+            for (A element : originalList) {
+                boolean shouldInclude = predicate.call(element);
+                if (shouldInclude) count++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Same as count but the predicate returns a primitive boolean, so no Boolean is boxed or unboxed per element
+     *
+     * @param originalList -
+     * @param predicate    -
+     * @param <A>          The type of the elements of the original list
+     * @return the number of elements that matches the predicate
+     */
+    public static <A> int countWhere(Collection<A> originalList, Predicate<A> predicate) {
+        int count = 0;
+
+        if (checkIfListIsNullOrEmpty(originalList)) return count;
+
+        if (isRandomAccessList(originalList)) {
+            List<A> list = (List<A>) originalList;
+            for (int i = 0, size = list.size(); i < size; i++) {
+                if (predicate.call(list.get(i))) count++;
+            }
+        } else {
+            for (A element : originalList) {
+                if (predicate.call(element)) count++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Same as minInt but the function returns a primitive int, so no Integer is boxed or unboxed per element
+     *
+     * @param originalList -
+     * @param func         -
+     * @param <A>          The type of the elements of the original list
+     * @return the minimum value, 0 if the list is empty
+     */
+    public static <A> int minOfInt(Collection<A> originalList, IntFunc1<A> func) {
+        int min = Integer.MAX_VALUE;
+
+        if (checkIfListIsNullOrEmpty(originalList)) return 0;
+
+        for (A element : originalList) {
+            int value = func.call(element);
+            if (value < min) min = value;
+        }
+
+        return min;
+    }
+
+    /**
+     * Same as maxInt but the function returns a primitive int, so no Integer is boxed or unboxed per element
+     *
+     * @param originalList -
+     * @param func         -
+     * @param <A>          The type of the elements of the original list
+     * @return the maximum value, 0 if the list is empty
+     */
+    public static <A> int maxOfInt(Collection<A> originalList, IntFunc1<A> func) {
+        int max = Integer.MIN_VALUE;
+
+        if (checkIfListIsNullOrEmpty(originalList)) return 0;
+
+        for (A element : originalList) {
+            int value = func.call(element);
+            if (value > max) max = value;
+        }
+
+        return max;
+    }
+
+    /**
+     * Same as sum but the function returns a primitive int, so no Integer is boxed or unboxed per element
+     *
+     * @param originalList -
+     * @param func         -
+     * @param <A>          The type of the elements of the original list
+     * @return the sum of the values
+     */
+    public static <A> int sumOfInt(Collection<A> originalList, IntFunc1<A> func) {
+        int total = 0;
+
+        if (checkIfListIsNullOrEmpty(originalList)) return total;
+
+        for (A element : originalList) {
+            total += func.call(element);
+        }
+
+        return total;
+    }
+
+    /**
+     * This applies the function to each element of the list and returns the minimum value
+     *
+     * @param originalList -
+     * @param func         -
+     * @param <A>          The type of the elements of the original list
+     * @return the minimum value, 0 if the list is empty
+     */
+    public static <A> long minOfLong(Collection<A> originalList, LongFunc1<A> func) {
+        long min = Long.MAX_VALUE;
+
+        if (checkIfListIsNullOrEmpty(originalList)) return 0;
+
+        for (A element : originalList) {
+            long value = func.call(element);
+            if (value < min) min = value;
+        }
+
+        return min;
+    }
+
+    /**
+     * This applies the function to each element of the list and returns the maximum value
+     *
+     * @param originalList -
+     * @param func         -
+     * @param <A>          The type of the elements of the original list
+     * @return the maximum value, 0 if the list is empty
+     */
+    public static <A> long maxOfLong(Collection<A> originalList, LongFunc1<A> func) {
+        long max = Long.MIN_VALUE;
+
+        if (checkIfListIsNullOrEmpty(originalList)) return 0;
+
+        for (A element : originalList) {
+            long value = func.call(element);
+            if (value > max) max = value;
+        }
+
+        return max;
+    }
+
+    /**
+     * This applies the function to each element of the list and returns the sum of the elements
+     *
+     * @param originalList -
+     * @param func         -
+     * @param <A>          The type of the elements of the original list
+     * @return the sum of the values
+     */
+    public static <A> long sumOfLong(Collection<A> originalList, LongFunc1<A> func) {
+        long total = 0;
+
+        if (checkIfListIsNullOrEmpty(originalList)) return total;
+
+        for (A element : originalList) {
+            total += func.call(element);
+        }
+
+        return total;
+    }
+
+    /**
+     * This applies the function to each element of the list and returns the minimum value
+     *
+     * @param originalList -
+     * @param func         -
+     * @param <A>          The type of the elements of the original list
+     * @return the minimum value, 0 if the list is empty
+     */
+    public static <A> double minOfDouble(Collection<A> originalList, DoubleFunc1<A> func) {
+        double min = Double.POSITIVE_INFINITY;
+
+        if (checkIfListIsNullOrEmpty(originalList)) return 0;
+
+        for (A element : originalList) {
+            min = Math.min(func.call(element), min);
+        }
+
+        return min;
+    }
+
+    /**
+     * This applies the function to each element of the list and returns the maximum value
+     *
+     * @param originalList -
+     * @param func         -
+     * @param <A>          The type of the elements of the original list
+     * @return the maximum value, 0 if the list is empty
+     */
+    public static <A> double maxOfDouble(Collection<A> originalList, DoubleFunc1<A> func) {
+        double max = Double.NEGATIVE_INFINITY;
+
+        if (checkIfListIsNullOrEmpty(originalList)) return 0;
+
+        for (A element : originalList) {
+            max = Math.max(func.call(element), max);
+        }
+
+        return max;
+    }
+
+    /**
+     * This applies the function to each element of the list and returns the sum of the elements
+     *
+     * @param originalList -
+     * @param func         -
+     * @param <A>          The type of the elements of the original list
+     * @return the sum of the values
+     */
+    public static <A> double sumOfDouble(Collection<A> originalList, DoubleFunc1<A> func) {
+        double total = 0;
+
+        if (checkIfListIsNullOrEmpty(originalList)) return total;
+
+        for (A element : originalList) {
+            total += func.call(element);
+        }
+
+        return total;
+    }
+
+    /**
+     * Returns a string containing the tokens joined by delimiters.
+     *
+     * @param tokens an array objects to be joined. Strings will be formed from
+     *               the objects by calling object.toString().
+     */
+    public static String join(CharSequence delimiter, Iterable tokens) {
+        return join(new StringBuilder(), delimiter, tokens).toString();
+    }
+
+    /**
+     * Appends the tokens joined by delimiters to the given builder, the builder can be presized or reused by calling
+     * setLength(0) before calling this method
+     *
+     * @param destination the builder where the tokens are appended
+     * @param delimiter   -
+     * @param tokens      objects to be joined. Strings will be formed from the objects by calling object.toString().
+     * @return the destination
+     */
+    public static StringBuilder join(StringBuilder destination, CharSequence delimiter, Iterable<?> tokens) {
+        boolean firstTime = true;
+        for (Object token : tokens) {
+            if (firstTime) {
+                firstTime = false;
+            } else {
+                destination.append(delimiter);
+            }
+            destination.append(token);
+        }
+        return destination;
+    }
+
+    /**
+     * Writes the tokens joined by delimiters to the given appendable (a Writer, a PrintStream...) without building the
+     * whole string first
+     *
+     * @param destination where the tokens are written
+     * @param delimiter   -
+     * @param tokens      objects to be joined. Strings will be formed from the objects by calling object.toString().
+     * @param <T>         The type of the destination
+     * @return the destination
+     * @throws IOException if the destination throws it
+     */
+    public static <T extends Appendable> T join(T destination, CharSequence delimiter, Iterable<?> tokens) throws IOException {
+        boolean firstTime = true;
+        for (Object token : tokens) {
+            if (firstTime) {
+                firstTime = false;
+            } else {
+                destination.append(delimiter);
+            }
+            destination.append(token instanceof CharSequence ? (CharSequence) token : String.valueOf(token));
+        }
+        return destination;
+    }
+
+    /**
+     * Writes the tokens joined by delimiters to the given stream, encoded with the given charset. The stream is flushed
+     * but not closed.
+     *
+     * @param destination where the tokens are written
+     * @param charset     -
+     * @param delimiter   -
+     * @param tokens      objects to be joined. Strings will be formed from the objects by calling object.toString().
+     * @throws IOException if the stream throws it
+     */
+    public static void join(OutputStream destination, Charset charset, CharSequence delimiter, Iterable<?> tokens) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(destination, charset));
+        join(writer, delimiter, tokens);
+        writer.flush();
+    }
+
+    /**
+     * Encodes the tokens joined by delimiters into the given buffer with the given charset, starting at the position of
+     * the buffer
+     *
+     * @param destination where the tokens are encoded
+     * @param charset     -
+     * @param delimiter   -
+     * @param tokens      objects to be joined. Strings will be formed from the objects by calling object.toString().
+     * @return the destination, positioned after the last encoded byte
+     * @throws java.nio.BufferOverflowException if the buffer does not have room for all the bytes
+     */
+    public static ByteBuffer join(ByteBuffer destination, Charset charset, CharSequence delimiter, Iterable<?> tokens) {
+        ByteBufferAppendable appendable = new ByteBufferAppendable(destination, charset);
+        try {
+            join(appendable, delimiter, tokens);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return appendable.finish();
+    }
+
+    /**
+     * Merges two homogeneus lists into one
+     *
+     * @param collection1 collection1
+     * @param collection2 collection1
+     * @param <A>         the type of the collections
+     * @return a set containing unique values of both lists
+     */
+    public static <A> Set<A> zipUnique(Collection<A> collection1, Collection<A> collection2) {
+        HashSet<A> resultSet = new HashSet<>();
+
+        if (!checkIfListIsNullOrEmpty(collection1)) {
+            for (A a : collection1) {
+                if (!resultSet.contains(a)) resultSet.add(a);
+            }
+        }
+
+        if (!checkIfListIsNullOrEmpty(collection2)) {
+            for (A a : collection2) {
+                if (!resultSet.contains(a)) resultSet.add(a);
+            }
+        }
+
+        return resultSet;
+    }
+
+    /**
+     * Returns a thread safe set backed by a ConcurrentHashMap, so several threads can add the distinct results of their
+     * shards with mapInto, filterInto or flatMapInto at the same time without locking a synchronized HashSet on every
+     * add. Like the ConcurrentHashMap it does not accept null.
+     *
+     * @param expectedSize the number of distinct elements expected, so the set does not have to grow
+     * @param <A>          The type of the elements
+     * @return an empty concurrent set
+     */
+    public static <A> Set<A> concurrentSet(int expectedSize) {
+        int concurrencyLevel = Runtime.getRuntime().availableProcessors();
+        return Collections.newSetFromMap(
+                new ConcurrentHashMap<A, Boolean>(hashCapacityFor(expectedSize), 0.75f, concurrencyLevel));
+    }
+
+    /**
+     * This applies the function to each element of the list and returns the sum of the elements
+     *
+     * @param originalList    -
+     * @param functionToApply -
+     * @param <A>             The type of the elements of the original list
+     * @return the sum of the values
+     */
+    public static <A> String reduceToString(Collection<A> originalList, Func1<A, String> functionToApply) {
+        if (checkIfListIsNullOrEmpty(originalList)) return "";
+
+        return reduceToString(originalList, functionToApply, new StringBuilder()).toString();
+    }
+
+    /**
+     * Same as reduceToString but the results are appended to the given builder, the builder can be presized or reused
+     * by calling setLength(0) before calling this method
+     *
+     * @param originalList    -
+     * @param functionToApply -
+     * @param destination     the builder where the results are appended
+     * @param <A>             The type of the elements of the original list
+     * @return the destination
+     */
+    public static <A> StringBuilder reduceToString(Collection<A> originalList, Func1<A, String> functionToApply,
+                                                   StringBuilder destination) {
+        if (checkIfListIsNullOrEmpty(originalList)) return destination;
+
+        for (A element : originalList) {
+            destination.append(functionToApply.call(element));
+        }
+
+        return destination;
+    }
+
+    /**
+     * Same as reduceToString but the results are written to the given appendable (a Writer, a PrintStream...) without
+     * building the whole string first
+     *
+     * @param originalList    -
+     * @param functionToApply -
+     * @param destination     where the results are written
+     * @param <A>             The type of the elements of the original list
+     * @param <T>             The type of the destination
+     * @return the destination
+     * @throws IOException if the destination throws it
+     */
+    public static <A, T extends Appendable> T reduceToString(Collection<A> originalList, Func1<A, String> functionToApply,
+                                                             T destination) throws IOException {
+        if (checkIfListIsNullOrEmpty(originalList)) return destination;
+
+        for (A element : originalList) {
+            destination.append(functionToApply.call(element));
+        }
+
+        return destination;
+    }
+
+    /**
+     * Same as reduceToString but the results are written to the given stream, encoded with the given charset. The
+     * stream is flushed but not closed.
+     *
+     * @param originalList    -
+     * @param functionToApply -
+     * @param destination     where the results are written
+     * @param charset         -
+     * @param <A>             The type of the elements of the original list
+     * @throws IOException if the stream throws it
+     */
+    public static <A> void reduceToString(Collection<A> originalList, Func1<A, String> functionToApply,
+                                          OutputStream destination, Charset charset) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(destination, charset));
+        reduceToString(originalList, functionToApply, writer);
+        writer.flush();
+    }
+
+    /**
+     * Same as reduceToString but the results are encoded into the given buffer with the given charset, starting at the
+     * position of the buffer
+     *
+     * @param originalList    -
+     * @param functionToApply -
+     * @param destination     where the results are encoded
+     * @param charset         -
+     * @param <A>             The type of the elements of the original list
+     * @return the destination, positioned after the last encoded byte
+     * @throws java.nio.BufferOverflowException if the buffer does not have room for all the bytes
+     */
+    public static <A> ByteBuffer reduceToString(Collection<A> originalList, Func1<A, String> functionToApply,
+                                                ByteBuffer destination, Charset charset) {
+        ByteBufferAppendable appendable = new ByteBufferAppendable(destination, charset);
+        try {
+            reduceToString(originalList, functionToApply, appendable);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return appendable.finish();
+    }
+
+    /**
+     * Returns the first element if the list is not null and have more than 0 elements, else returns null
+     *
+     * @param list
+     * @param <A>
+     * @return
+     */
+    @Nullable
+    public static <A> A first(List<A> list) {
+        if (list != null && list.size() > 0) {
+            return list.get(0);
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Returns a new list with the given elements at the beginning of the list
+     *
+     * @param originalList
+     * @param elements
+     * @param <A>
+     * @return Returns a new list with the given elements at the beginning of the list
+     */
+    @SafeVarargs
+    public static <A> List<A> unshift(List<A> originalList, A... elements) {
+        ArrayList<A> newList = new ArrayList<>(elements.length + originalList.size());
+        for (A element : elements) {
+            newList.add(element);
+        }
+        newList.addAll(originalList);
+
+        return newList;
+    }
+
+    /**
+     * Same as unshift but returns a read only view of the elements followed by the list instead of copying the list.
+     * Unshifting to the last view returned reuses its buffer, so building a list by unshifting in a loop takes
+     * amortized O(1) per element instead of O(n). The list must not change its size while the view is used, use
+     * materialize to get a copy that does not depend on it.
+     *
+     * @param originalList -
+     * @param elements     the elements to add at the beginning
+     * @param <A>          The type of the elements of the original list
+     * @return a read only view of the elements followed by the list
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    public static <A> List<A> unshiftView(List<A> originalList, A... elements) {
+        return PrependedList.create(originalList, elements);
+    }
+
+    /**
+     * Copies a list, usually a view returned by mergeView or unshiftView, into a new ArrayList
+     *
+     * @param originalList -
+     * @param <A>          The type of the elements of the original list
+     * @return a new list with the same elements
+     */
+    public static <A> List<A> materialize(Collection<A> originalList) {
+        return new ArrayList<>(originalList);
+    }
+
+    /**
+     * Merges the lists into one
+     *
+     * @param lists
+     * @param <A>
+     * @return
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    public static <A> List<A> merge(List<A>... lists) {
+        if (lists.length == 0) return new ArrayList<>();
+
+        int totalSize = 0;
+        for (List<A> list : lists) {
+            totalSize += list.size();
+        }
+
+        return mergeInto(new ArrayList<A>(totalSize), lists);
+    }
+
+    /**
+     * Estimates the number of distinct keys with a HyperLogLog of the default precision, in 16KB of memory instead of
+     * building a set with all the keys like distinct(...).size(). The standard error of the estimate is about 0.8%, so it
+     * is usually within 2% of the real count. Keys that are neither integral numbers nor char sequences are counted by
+     * their hashCode, see HyperLogLog.
+     *
+     * @param originalList -
+     * @param keyFunction  returns the value whose distinct occurrences are counted
      * @param <A>          The type of the elements of the original list
-     * @return the maximum value
+     * @param <K>          The type of the keys
+     * @return the estimated number of distinct keys
      */
-    public static <A> int maxInt(List<A> originalList, Func1<A, Integer> func) {
-        int max = Integer.MIN_VALUE;
+    public static <A, K> long approxDistinctCount(Collection<A> originalList, Func1<A, K> keyFunction) {
+        return hyperLogLog(originalList, keyFunction, HyperLogLog.DEFAULT_PRECISION).estimate();
+    }
 
-        if (checkIfListIsNullOrEmpty(originalList)) return 0;
+    /**
+     * Adds the key of each element to a new HyperLogLog, the HyperLogLogs of several lists can be merged to estimate
+     * the distinct keys of all of them
+     *
+     * @param originalList -
+     * @param keyFunction  returns the value whose distinct occurrences are counted
+     * @param precision    the log2 of the number of registers, see HyperLogLog
+     * @param <A>          The type of the elements of the original list
+     * @param <K>          The type of the keys
+     * @return the HyperLogLog with the keys
+     */
+    public static <A, K> HyperLogLog hyperLogLog(Collection<A> originalList, Func1<A, K> keyFunction, int precision) {
+        HyperLogLog hyperLogLog = new HyperLogLog(precision);
+        if (checkIfListIsNullOrEmpty(originalList)) return hyperLogLog;
 
-        for (A aElement : originalList) {
-            Integer element = func.call(aElement);
-            max = Math.max(element, max);
+        for (A element : originalList) {
+            hyperLogLog.add(keyFunction.call(element));
         }
 
-        return max;
+        return hyperLogLog;
     }
 
     /**
-     * Returns a list containing the given elements
+     * Adds the key of each element to a new BloomFilter sized for the list, to test later if a key might be in it
      *
-     * @param elements -
-     * @param <T>      The type of the elements of the original list
-     * @return the list
+     * @param originalList             -
+     * @param keyFunction              returns the value added to the filter
+     * @param falsePositiveProbability the probability that the filter says a missing key might be in it
+     * @param <A>                      The type of the elements of the original list
+     * @param <K>                      The type of the keys
+     * @return the filter with the keys
      */
-    @SafeVarargs
-    public static <T> List<T> of(T... elements) {
-        ArrayList<T> list = new ArrayList<T>();
+    public static <A, K> BloomFilter bloomFilter(Collection<A> originalList, Func1<A, K> keyFunction,
+                                                 double falsePositiveProbability) {
+        int size = originalList == null ? 0 : originalList.size();
+        BloomFilter bloomFilter = BloomFilter.create(size, falsePositiveProbability);
+        if (size == 0) return bloomFilter;
 
-        for (T element : elements) {
-            list.add(element);
+        for (A element : originalList) {
+            bloomFilter.add(keyFunction.call(element));
         }
-        return list;
+
+        return bloomFilter;
     }
 
     /**
-     * Returns the sum of the elements
+     * Returns the elements whose key might be in the filter. It keeps every element whose key was added and a few
+     * others, so it is a cheap pre-filter before an exact but expensive one like a lookup.
      *
      * @param originalList -
-     * @return the sum
+     * @param keyFunction  returns the value tested against the filter
+     * @param bloomFilter  -
+     * @param <A>          The type of the elements of the original list
+     * @param <K>          The type of the keys
+     * @return a list with the elements whose key might be in the filter
      */
-    public static int sum(Collection<Integer> originalList) {
-        int total = 0;
+    public static <A, K> List<A> filterMightContain(Collection<A> originalList, Func1<A, K> keyFunction,
+                                                    BloomFilter bloomFilter) {
+        ArrayList<A> filteredList = new ArrayList<>();
+        if (checkIfListIsNullOrEmpty(originalList)) return filteredList;
 
-        if (checkIfListIsNullOrEmpty(originalList)) return total;
+        for (A element : originalList) {
+            if (bloomFilter.mightContain(keyFunction.call(element))) filteredList.add(element);
+        }
 
-        for (Integer element : originalList) {
-            total += element;
+        return filteredList;
+    }
+
+    /**
+     * Pairs each element of the left collection with each element of the right collection that has the same key, like
+     * a SQL inner join. It builds a hash table with the keys of the smaller collection and scans the other one, so it
+     * takes O(n + m) time instead of looking up each left element in the right collection. Keys are compared with
+     * equals, so null keys match each other.
+     *
+     * @param left     -
+     * @param right    -
+     * @param leftKey  returns the key of an element of the left collection
+     * @param rightKey returns the key of an element of the right collection
+     * @param combiner returns the result of a left element and a right element with the same key
+     * @param <A>      The type of the elements of the left collection
+     * @param <B>      The type of the elements of the right collection
+     * @param <K>      The type of the keys
+     * @param <C>      The type of the elements of the returned list
+     * @return the results in the order of the left collection, and then in the order of the right collection for the
+     * matches of the same left element
+     */
+    public static <A, B, K, C> List<C> innerJoin(Collection<A> left, Collection<B> right, Func1<A, K> leftKey,
+                                                 Func1<B, K> rightKey, Func2<A, B, C> combiner) {
+        ArrayList<C> joinedList = new ArrayList<>();
+        if (checkIfListIsNullOrEmpty(left) || checkIfListIsNullOrEmpty(right)) return joinedList;
+
+        Map<K, List<B>> matches = joinTable(left, right, leftKey, rightKey);
+        for (A element : left) {
+            List<B> elementMatches = matches.get(leftKey.call(element));
+            if (elementMatches == null) continue;
+
+            for (B match : elementMatches) {
+                joinedList.add(combiner.call(element, match));
+            }
         }
 
-        return total;
+        return joinedList;
     }
 
     /**
-     * This applies the function to each element of the list and returns the sum of the elements
+     * Same as innerJoin but the left elements without any match are kept too, the combiner is called with a null right
+     * element for them, like a SQL left outer join
      *
-     * @param originalList -
-     * @param func         -
-     * @param <A>          The type of the elements of the original list
-     * @return the maximum value
+     * @param left     -
+     * @param right    -
+     * @param leftKey  returns the key of an element of the left collection
+     * @param rightKey returns the key of an element of the right collection
+     * @param combiner returns the result of a left element and a right element with the same key, or null
+     * @param <A>      The type of the elements of the left collection
+     * @param <B>      The type of the elements of the right collection
+     * @param <K>      The type of the keys
+     * @param <C>      The type of the elements of the returned list
+     * @return the results in the order of the left collection, and then in the order of the right collection for the
+     * matches of the same left element
      */
-    public static <A> int sum(List<A> originalList, Func1<A, Integer> func) {
-        int total = 0;
+    public static <A, B, K, C> List<C> leftJoin(Collection<A> left, Collection<B> right, Func1<A, K> leftKey,
+                                                Func1<B, K> rightKey, Func2<A, B, C> combiner) {
+        ArrayList<C> joinedList = new ArrayList<>(left == null ? 0 : left.size());
+        if (checkIfListIsNullOrEmpty(left)) return joinedList;
+
+        Map<K, List<B>> matches = joinTable(left, right, leftKey, rightKey);
+        for (A element : left) {
+            List<B> elementMatches = matches.get(leftKey.call(element));
+            if (elementMatches == null || elementMatches.isEmpty()) {
+                joinedList.add(combiner.call(element, null));
+                continue;
+            }
 
-        if (checkIfListIsNullOrEmpty(originalList)) return total;
+            for (B match : elementMatches) {
+                joinedList.add(combiner.call(element, match));
+            }
+        }
 
-        for (A aElement : originalList) {
-            Integer element = func.call(aElement);
-            total += element;
+        return joinedList;
+    }
+
+    /**
+     * Returns the elements of the left collection that have at least one element with the same key in the right
+     * collection, each one once, like a SQL semi join. Only the keys are put in a hash set.
+     *
+     * @param left     -
+     * @param right    -
+     * @param leftKey  returns the key of an element of the left collection
+     * @param rightKey returns the key of an element of the right collection
+     * @param <A>      The type of the elements of the left collection
+     * @param <B>      The type of the elements of the right collection
+     * @param <K>      The type of the keys
+     * @return a list with the matching left elements in their original order
+     */
+    public static <A, B, K> List<A> semiJoin(Collection<A> left, Collection<B> right, Func1<A, K> leftKey,
+                                             Func1<B, K> rightKey) {
+        ArrayList<A> filteredList = new ArrayList<>();
+        if (checkIfListIsNullOrEmpty(left) || checkIfListIsNullOrEmpty(right)) return filteredList;
+
+        Set<K> keys = joinKeys(left, right, leftKey, rightKey);
+        for (A element : left) {
+            if (keys.contains(leftKey.call(element))) filteredList.add(element);
         }
 
-        return total;
+        return filteredList;
     }
 
     /**
-     * This applies the function to each element of the list and returns the sum of the elements
+     * Returns the elements of the left collection that do not have any element with the same key in the right
+     * collection, like a SQL anti join. Only the keys are put in a hash set.
      *
-     * @param originalList -
-     * @param func         -
-     * @param <A>          The type of the elements of the original list
-     * @return the sum of the values
+     * @param left     -
+     * @param right    -
+     * @param leftKey  returns the key of an element of the left collection
+     * @param rightKey returns the key of an element of the right collection
+     * @param <A>      The type of the elements of the left collection
+     * @param <B>      The type of the elements of the right collection
+     * @param <K>      The type of the keys
+     * @return a list with the left elements without a match in their original order
      */
-    public static <A> BigDecimal sumBigDecimal(List<A> originalList, Func1<A, BigDecimal> func) {
-        BigDecimal total = BigDecimal.ZERO;
+    public static <A, B, K> List<A> antiJoin(Collection<A> left, Collection<B> right, Func1<A, K> leftKey,
+                                             Func1<B, K> rightKey) {
+        if (checkIfListIsNullOrEmpty(left)) return new ArrayList<>();
+        if (checkIfListIsNullOrEmpty(right)) return new ArrayList<>(left);
 
-        if (checkIfListIsNullOrEmpty(originalList)) return total;
+        ArrayList<A> filteredList = new ArrayList<>();
+        Set<K> keys = joinKeys(left, right, leftKey, rightKey);
+        for (A element : left) {
+            if (!keys.contains(leftKey.call(element))) filteredList.add(element);
+        }
 
-        for (A aElement : originalList) {
-            BigDecimal element = func.call(aElement);
-            total = total.add(element);
+        return filteredList;
+    }
+
+    /**
+     * Same as merge but returns a read only view of the lists instead of copying them, so it takes O(number of lists)
+     * time. get finds the list of an index with a binary search, and merging views does not nest them. The lists must
+     * not change their size while the view is used, use materialize to get a copy that does not depend on them.
+     *
+     * @param lists -
+     * @param <A>   The type of the elements of the lists
+     * @return a read only view of the lists one after the other
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    public static <A> List<A> mergeView(List<A>... lists) {
+        return ConcatList.create(lists);
+    }
+
+    /**
+     * Adds the elements of all the lists to the given collection, the collection is not cleared so it can be reused by
+     * clearing it before calling this method
+     *
+     * @param destination the collection where the elements are added
+     * @param lists       -
+     * @param <A>         The type of the elements of the lists
+     * @param <C>         The type of the destination
+     * @return the destination
+     */
+    @SafeVarargs
+    public static <A, C extends Collection<? super A>> C mergeInto(C destination, List<A>... lists) {
+        for (List<A> list : lists) {
+            destination.addAll(list);
         }
 
-        return total;
+        return destination;
     }
 
     /**
-     * This applies the function to each element of the list and returns the number of elements that matches the predicate
+     * Merges lists that are already sorted by the comparator into one sorted list, without sorting again. Uses a heap
+     * with one entry per list, so it takes O(n log k) time for k lists and n elements in total. Equal elements keep
+     * the order of their lists.
      *
-     * @param originalList -
-     * @param predicate    -
-     * @param <A>          The type of the elements of the original list
-     * @return the number of elements that matches the predicate
+     * @param comparator the order of the lists
+     * @param lists      lists sorted by the comparator
+     * @param <A>        The type of the elements of the lists
+     * @return a new sorted list with all the elements
      */
-    public static <A> int count(Collection<A> originalList, Func1<A, Boolean> predicate) {
-        int count = 0;
+    @SafeVarargs
+    public static <A> List<A> mergeSorted(Comparator<? super A> comparator, List<A>... lists) {
+        int totalSize = 0;
+        for (List<A> list : lists) {
+            totalSize += list.size();
+        }
 
-        if (checkIfListIsNullOrEmpty(originalList)) return count;
+        ArrayList<A> result = new ArrayList<>(totalSize);
 
-        for (A element : originalList) {
-            boolean shouldInclude = predicate.call(element);
-            if (shouldInclude) count++;
+        PriorityQueue<SortedCursor<A>> heap = new PriorityQueue<>(Math.max(lists.length, 1), SortedCursor.<A>byHead(comparator));
+        for (int i = 0; i < lists.length; i++) {
+            SortedCursor<A> cursor = new SortedCursor<>(lists[i].iterator(), i);
+            if (cursor.advance()) heap.add(cursor);
         }
 
-        return count;
+        while (!heap.isEmpty()) {
+            SortedCursor<A> cursor = heap.poll();
+            result.add(cursor.head);
+            if (cursor.advance()) heap.add(cursor);
+        }
+
+        return result;
     }
 
     /**
-     * Returns a string containing the tokens joined by delimiters.
+     * Returns the elements that are in any of the lists, which must be sorted by the comparator. It is a linear merge,
+     * the elements are not hashed nor sorted again. Elements that are equal according to the comparator are returned
+     * once, the first one found.
      *
-     * @param tokens an array objects to be joined. Strings will be formed from
-     *               the objects by calling object.toString().
+     * @param list1      a list sorted by the comparator
+     * @param list2      a list sorted by the comparator
+     * @param comparator -
+     * @param <A>        The type of the elements of the lists
+     * @return a new sorted list without duplicates
      */
-    public static String join(CharSequence delimiter, Iterable tokens) {
-        StringBuilder sb = new StringBuilder();
-        boolean firstTime = true;
-        for (Object token : tokens) {
-            if (firstTime) {
-                firstTime = false;
+    public static <A> List<A> unionSorted(List<A> list1, List<A> list2, Comparator<? super A> comparator) {
+        ArrayList<A> result = new ArrayList<>();
+        Iterator<A> iterator1 = list1.iterator();
+        Iterator<A> iterator2 = list2.iterator();
+        boolean has1 = iterator1.hasNext();
+        boolean has2 = iterator2.hasNext();
+        A element1 = has1 ? iterator1.next() : null;
+        A element2 = has2 ? iterator2.next() : null;
+
+        while (has1 || has2) {
+            A next;
+            if (!has2 || has1 && comparator.compare(element1, element2) <= 0) {
+                next = element1;
+                has1 = iterator1.hasNext();
+                element1 = has1 ? iterator1.next() : null;
             } else {
-                sb.append(delimiter);
+                next = element2;
+                has2 = iterator2.hasNext();
+                element2 = has2 ? iterator2.next() : null;
             }
-            sb.append(token);
+
+            if (result.isEmpty() || comparator.compare(result.get(result.size() - 1), next) != 0) result.add(next);
         }
-        return sb.toString();
+
+        return result;
     }
 
     /**
-     * Merges two homogeneus lists into one
+     * Returns the elements of the first list that are also in the second one, both lists must be sorted by the
+     * comparator. It is a linear merge, the elements are not hashed nor sorted again. Elements that are equal according
+     * to the comparator are returned once.
      *
-     * @param collection1 collection1
-     * @param collection2 collection1
-     * @param <A>         the type of the collections
-     * @return a set containing unique values of both lists
+     * @param list1      a list sorted by the comparator
+     * @param list2      a list sorted by the comparator
+     * @param comparator -
+     * @param <A>        The type of the elements of the lists
+     * @return a new sorted list without duplicates
      */
-    public static <A> Set<A> zipUnique(Collection<A> collection1, Collection<A> collection2) {
-        HashSet<A> resultSet = new HashSet<>();
+    public static <A> List<A> intersectSorted(List<A> list1, List<A> list2, Comparator<? super A> comparator) {
+        ArrayList<A> result = new ArrayList<>();
+        Iterator<A> iterator2 = list2.iterator();
 
-        if (!checkIfListIsNullOrEmpty(collection1)) {
-            for (A a : collection1) {
-                if (!resultSet.contains(a)) resultSet.add(a);
+        if (!iterator2.hasNext()) return result;
+
+        A element2 = iterator2.next();
+
+        for (A element1 : list1) {
+            int comparison = comparator.compare(element1, element2);
+            while (comparison > 0 && iterator2.hasNext()) {
+                element2 = iterator2.next();
+                comparison = comparator.compare(element1, element2);
             }
-        }
 
-        if (!checkIfListIsNullOrEmpty(collection2)) {
-            for (A a : collection2) {
-                if (!resultSet.contains(a)) resultSet.add(a);
+            if (comparison > 0) break;
+            if (comparison == 0 && (result.isEmpty() || comparator.compare(result.get(result.size() - 1), element1) != 0)) {
+                result.add(element1);
             }
         }
 
-        return resultSet;
+        return result;
     }
 
     /**
-     * This applies the function to each element of the list and returns the sum of the elements
+     * Returns the elements of the first list that are not in the second one, both lists must be sorted by the
+     * comparator. It is a linear merge, the elements are not hashed nor sorted again. Elements that are equal according
+     * to the comparator are returned once.
      *
-     * @param originalList    -
-     * @param functionToApply -
-     * @param <A>             The type of the elements of the original list
-     * @return the sum of the values
+     * @param list1      a list sorted by the comparator
+     * @param list2      a list sorted by the comparator
+     * @param comparator -
+     * @param <A>        The type of the elements of the lists
+     * @return a new sorted list without duplicates
      */
-    public static <A> String reduceToString(Collection<A> originalList, Func1<A, String> functionToApply) {
-        String result = "";
-
-        if (checkIfListIsNullOrEmpty(originalList)) return result;
+    public static <A> List<A> exceptSorted(List<A> list1, List<A> list2, Comparator<? super A> comparator) {
+        ArrayList<A> result = new ArrayList<>();
+        Iterator<A> iterator2 = list2.iterator();
+        boolean has2 = iterator2.hasNext();
+        A element2 = has2 ? iterator2.next() : null;
+
+        for (A element1 : list1) {
+            int comparison = has2 ? comparator.compare(element1, element2) : -1;
+            while (comparison > 0) {
+                has2 = iterator2.hasNext();
+                element2 = has2 ? iterator2.next() : null;
+                comparison = has2 ? comparator.compare(element1, element2) : -1;
+            }
 
-        for (A element : originalList) {
-            result += functionToApply.call(element);
+            if (comparison != 0 && (result.isEmpty() || comparator.compare(result.get(result.size() - 1), element1) != 0)) {
+                result.add(element1);
+            }
         }
 
         return result;
     }
 
     /**
-     * Returns the first element if the list is not null and have more than 0 elements, else returns null
+     * Returns the parallel versions of the operations, running in a shared pool with one thread per processor
      *
-     * @param list
-     * @param <A>
-     * @return
+     * @return the parallel operations
      */
-    @Nullable
-    public static <A> A first(List<A> list) {
-        if (list != null && list.size() > 0) {
-            return list.get(0);
-        } else {
-            return null;
-        }
+    public static ParallelLists parallel() {
+        return ParallelLists.defaultInstance();
     }
 
     /**
-     * Returns a new list with the given elements at the beginning of the list
+     * Returns the parallel versions of the operations, running in the given pool
      *
-     * @param originalList
-     * @param elements
-     * @param <A>
-     * @return Returns a new list with the given elements at the beginning of the list
+     * @param pool      -
+     * @param threshold the number of elements below which a range is processed sequentially
+     * @return the parallel operations
      */
-    @SafeVarargs
-    public static <A> List<A> unshift(List<A> originalList, A... elements) {
-        ArrayList<A> newList = new ArrayList<>();
-        for (A element : elements) {
-            newList.add(element);
+    public static ParallelLists parallel(ForkJoinPool pool, int threshold) {
+        return ParallelLists.create(pool, threshold);
+    }
+
+    private static <A> boolean checkIfListIsNullOrEmpty(Collection<A> originalList) {
+        return originalList == null || originalList.isEmpty();
+    }
+
+    /**
+     * Element of the heap of topK with its position in the list. Equal elements are ordered by position, the later one
+     * is the smaller so it is the first one dropped from the heap, which keeps the earlier equal elements.
+     */
+    private static final class RankedElement<A> {
+        private final A element;
+        private final int index;
+
+        RankedElement(A element, int index) {
+            this.element = element;
+            this.index = index;
         }
-        newList.addAll(originalList);
 
-        return newList;
+        static <A> Comparator<RankedElement<A>> byRank(final Comparator<? super A> comparator) {
+            return new Comparator<RankedElement<A>>() {
+                @Override
+                public int compare(RankedElement<A> ranked1, RankedElement<A> ranked2) {
+                    int comparison = comparator.compare(ranked1.element, ranked2.element);
+                    return comparison != 0 ? comparison : ranked2.index - ranked1.index;
+                }
+            };
+        }
     }
 
     /**
-     * Merges the lists into one
-     *
-     * @param lists
-     * @param <A>
-     * @return
+     * Position in one of the lists of mergeSorted, the heap is ordered by the current element and then by the index of
+     * the list so equal elements keep the order of their lists
      */
-    @SafeVarargs
-    public static <A> List<A> merge(List<A>... lists) {
-        ArrayList<A> result = new ArrayList<>();
+    private static final class SortedCursor<A> {
+        private final Iterator<A> iterator;
+        private final int listIndex;
+        private A head;
+
+        SortedCursor(Iterator<A> iterator, int listIndex) {
+            this.iterator = iterator;
+            this.listIndex = listIndex;
+        }
 
-        if (lists.length == 0) return result;
+        boolean advance() {
+            if (!iterator.hasNext()) return false;
+            head = iterator.next();
+            return true;
+        }
 
-        for (List<A> list : lists) {
-            result.addAll(list);
+        static <A> Comparator<SortedCursor<A>> byHead(final Comparator<? super A> comparator) {
+            return new Comparator<SortedCursor<A>>() {
+                @Override
+                public int compare(SortedCursor<A> cursor1, SortedCursor<A> cursor2) {
+                    int comparison = comparator.compare(cursor1.head, cursor2.head);
+                    return comparison != 0 ? comparison : cursor1.listIndex - cursor2.listIndex;
+                }
+            };
         }
+    }
 
+    private static <C extends Collection<?>> C finishList(@Nullable OperationRecorder recorder, C result, int initialCapacity) {
+        if (recorder != null) recorder.finishList(result.size(), initialCapacity);
         return result;
     }
 
-    private static <A> boolean checkIfListIsNullOrEmpty(Collection<A> originalList) {
-        return originalList == null || originalList.isEmpty();
+    /**
+     * Returns true if the elements of the collection can be read with get(i) in constant time, which is faster than
+     * creating an iterator
+     */
+    private static boolean isRandomAccessList(Collection<?> collection) {
+        return collection instanceof List && collection instanceof RandomAccess;
+    }
+
+    /**
+     * Checked before writing anything, so a destination that is too small is never left half written
+     */
+    private static void checkDestinationLength(Object[] destination, int needed) {
+        if (destination.length < needed) {
+            throw new IllegalArgumentException("The destination has room for " + destination.length + " elements but "
+                    + needed + " are needed");
+        }
+    }
+
+    private static int lengthOf(@Nullable Object[] array) {
+        return array == null ? 0 : array.length;
+    }
+
+    private static <C extends Collection<?>> C finishSet(@Nullable OperationRecorder recorder, C result, int initialCapacity) {
+        if (recorder != null) recorder.finishSet(result.size(), initialCapacity);
+        return result;
+    }
+
+    /**
+     * Returns the right elements grouped by key, in their original order, for the keys that a left element can look
+     * up. When the left collection is smaller its keys are put in the table first and the right elements with other
+     * keys are skipped, so the table always has the size of the smaller collection. Left keys without matches have an
+     * empty list.
+     */
+    static <A, B, K> Map<K, List<B>> joinTable(Collection<A> left, @Nullable Collection<B> right, Func1<A, K> leftKey,
+                                               Func1<B, K> rightKey) {
+        if (checkIfListIsNullOrEmpty(right)) return Collections.emptyMap();
+
+        boolean buildFromLeft = left.size() < right.size();
+        HashMap<K, List<B>> matches = new HashMap<>(hashCapacityFor(buildFromLeft ? left.size() : right.size()));
+        List<B> noMatches = Collections.emptyList();
+        if (buildFromLeft) {
+            for (A element : left) {
+                matches.put(leftKey.call(element), noMatches);
+            }
+        }
+
+        for (B element : right) {
+            K key = rightKey.call(element);
+            List<B> keyMatches = matches.get(key);
+            if (keyMatches == null && buildFromLeft) continue;
+
+            if (keyMatches == null || keyMatches == noMatches) {
+                keyMatches = new ArrayList<>(1);
+                matches.put(key, keyMatches);
+            }
+            keyMatches.add(element);
+        }
+
+        return matches;
+    }
+
+    /**
+     * Returns a set that contains the key of a left element if and only if a right element has the same key. It is
+     * built from the keys of the smaller collection like joinTable.
+     */
+    static <A, B, K> Set<K> joinKeys(Collection<A> left, Collection<B> right, Func1<A, K> leftKey,
+                                     Func1<B, K> rightKey) {
+        if (right.size() <= left.size()) {
+            HashSet<K> rightKeys = new HashSet<>(hashCapacityFor(right.size()));
+            for (B element : right) {
+                rightKeys.add(rightKey.call(element));
+            }
+            return rightKeys;
+        }
+
+        HashSet<K> leftKeys = new HashSet<>(hashCapacityFor(left.size()));
+        for (A element : left) {
+            leftKeys.add(leftKey.call(element));
+        }
+
+        HashSet<K> matchedKeys = new HashSet<>(hashCapacityFor(leftKeys.size()));
+        for (B element : right) {
+            K key = rightKey.call(element);
+            if (leftKeys.contains(key)) matchedKeys.add(key);
+        }
+        return matchedKeys;
+    }
+
+    /**
+     * Returns the initial capacity a HashSet or HashMap needs to hold the given number of elements without rehashing
+     */
+    static int hashCapacityFor(int expectedSize) {
+        if (expectedSize < 3) return expectedSize + 1;
+        if (expectedSize >= 1 << 30) return Integer.MAX_VALUE;
+        return (int) (expectedSize / 0.75f + 1.0f);
     }
 }
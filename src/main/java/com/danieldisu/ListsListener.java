@@ -0,0 +1,9 @@
+package com.danieldisu;
+
+/**
+ * Receives the statistics of every instrumented Lists operation, registered with Instrumentation.setListener. It is
+ * called in the thread that ran the operation, right before the operation returns, so it should be fast.
+ */
+public interface ListsListener {
+    void onOperation(OperationStats stats);
+}
@@ -0,0 +1,136 @@
+package com.danieldisu;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Listener that adds up the statistics of each operation, to find which operations are hot:
+ * <pre>
+ * ListsMetrics metrics = new ListsMetrics();
+ * Instrumentation.setListener(metrics);
+ * ...
+ * metrics.get("map").getTotalNanos();
+ * </pre>
+ * It is thread safe, so it can be shared by all the threads using Lists.
+ */
+public class ListsMetrics implements ListsListener {
+
+    private final ConcurrentHashMap<String, Totals> totalsByOperation = new ConcurrentHashMap<>();
+
+    @Override
+    public void onOperation(OperationStats stats) {
+        Totals totals = totalsByOperation.get(stats.getOperation());
+
+        if (totals == null) {
+            Totals newTotals = new Totals(stats.getOperation());
+            totals = totalsByOperation.putIfAbsent(stats.getOperation(), newTotals);
+            if (totals == null) totals = newTotals;
+        }
+
+        totals.add(stats);
+    }
+
+    /**
+     * @param operation the name of the Lists method
+     * @return the totals of the operation, or null if it has not been called
+     */
+    public Totals get(String operation) {
+        return totalsByOperation.get(operation);
+    }
+
+    /**
+     * @return the totals of every operation that has been called, by name
+     */
+    public Map<String, Totals> getAll() {
+        return Collections.unmodifiableMap(new HashMap<>(totalsByOperation));
+    }
+
+    /**
+     * Forgets all the recorded statistics
+     */
+    public void reset() {
+        totalsByOperation.clear();
+    }
+
+    /**
+     * Statistics of all the calls to one operation
+     */
+    public static final class Totals {
+
+        private final String operation;
+        private final AtomicLong invocations = new AtomicLong();
+        private final AtomicLong inputElements = new AtomicLong();
+        private final AtomicLong outputElements = new AtomicLong();
+        private final AtomicLong totalNanos = new AtomicLong();
+        private final AtomicLong functionNanos = new AtomicLong();
+        private final AtomicLong functionCalls = new AtomicLong();
+        private final AtomicLong resizes = new AtomicLong();
+
+        Totals(String operation) {
+            this.operation = operation;
+        }
+
+        void add(OperationStats stats) {
+            invocations.incrementAndGet();
+            inputElements.addAndGet(stats.getInputSize());
+            outputElements.addAndGet(stats.getOutputSize());
+            totalNanos.addAndGet(stats.getTotalNanos());
+            functionNanos.addAndGet(stats.getFunctionNanos());
+            functionCalls.addAndGet(stats.getFunctionCalls());
+            resizes.addAndGet(stats.getResizes());
+        }
+
+        public String getOperation() {
+            return operation;
+        }
+
+        public long getInvocations() {
+            return invocations.get();
+        }
+
+        public long getInputElements() {
+            return inputElements.get();
+        }
+
+        public long getOutputElements() {
+            return outputElements.get();
+        }
+
+        public long getTotalNanos() {
+            return totalNanos.get();
+        }
+
+        public long getFunctionNanos() {
+            return functionNanos.get();
+        }
+
+        public long getLibraryNanos() {
+            return getTotalNanos() - getFunctionNanos();
+        }
+
+        public long getFunctionCalls() {
+            return functionCalls.get();
+        }
+
+        public long getResizes() {
+            return resizes.get();
+        }
+
+        @Override
+        public String toString() {
+            return "Totals{" +
+                    "operation='" + operation + '\'' +
+                    ", invocations=" + invocations +
+                    ", inputElements=" + inputElements +
+                    ", outputElements=" + outputElements +
+                    ", totalNanos=" + totalNanos +
+                    ", functionNanos=" + functionNanos +
+                    ", functionCalls=" + functionCalls +
+                    ", resizes=" + resizes +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,508 @@
+package com.danieldisu;
+
+import com.danieldisu.functions.IntFunc1;
+import com.danieldisu.functions.LongFunc1;
+import com.danieldisu.functions.Predicate;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.RandomAccess;
+
+import javax.annotation.Nullable;
+
+import rx.Observable;
+import rx.functions.Func0;
+import rx.functions.Func1;
+import rx.subjects.PublishSubject;
+
+/**
+ * Mutable list that keeps its registered aggregates up to date as elements are added, removed or replaced, instead of
+ * computing them again over the whole list after each change. Reading an aggregate is O(1) and each change updates
+ * them in O(1), or O(log n) for the minimums and maximums, which are kept in an indexed heap:
+ * <pre>
+ * LiveList&lt;Order&gt; orders = LiveList.of(initialOrders);
+ * LiveList.Aggregate total = orders.sumOfInt(AMOUNT);
+ * orders.add(order);
+ * long current = total.get();
+ * </pre>
+ * Each change is published to the observable returned by changes, and aggregate.values() emits the value of an
+ * aggregate every time it changes. The observers are called in the thread that changes the list, after the aggregates
+ * are updated. Not thread safe.
+ * <p>
+ * The bounds above cover the aggregates only. The elements are kept in an ArrayList, so adding or removing an element
+ * anywhere but at the end shifts the elements after it in O(n) like ArrayList does.
+ *
+ * @param <A> The type of the elements
+ */
+public final class LiveList<A> extends AbstractList<A> implements RandomAccess {
+
+    private final ArrayList<Entry<A>> entries;
+    private final List<Aggregator<A>> aggregators = new ArrayList<>();
+    private final PublishSubject<Change<A>> changes = PublishSubject.create();
+    private int heapSlots;
+
+    private LiveList(int capacity) {
+        this.entries = new ArrayList<>(capacity);
+    }
+
+    /**
+     * @param <A> The type of the elements
+     * @return an empty list
+     */
+    public static <A> LiveList<A> create() {
+        return new LiveList<>(10);
+    }
+
+    /**
+     * @param elements the initial elements
+     * @param <A>      The type of the elements
+     * @return a list with the given elements
+     */
+    public static <A> LiveList<A> of(@Nullable Collection<A> elements) {
+        LiveList<A> liveList = new LiveList<>(elements == null ? 10 : elements.size());
+        if (elements == null) return liveList;
+
+        for (A element : elements) {
+            liveList.entries.add(new Entry<>(element, 0));
+        }
+        return liveList;
+    }
+
+    @Override
+    public A get(int index) {
+        return entries.get(index).element;
+    }
+
+    @Override
+    public int size() {
+        return entries.size();
+    }
+
+    @Override
+    public void add(int index, A element) {
+        Entry<A> entry = new Entry<>(element, heapSlots);
+        entries.add(index, entry);
+        modCount++;
+
+        for (Aggregator<A> aggregator : aggregators) {
+            aggregator.added(entry.element, entry);
+        }
+        publish(Change.Type.ADDED, index, null, element);
+    }
+
+    @Override
+    public A set(int index, A element) {
+        Entry<A> entry = entries.get(index);
+        A oldElement = entry.element;
+        entry.element = element;
+
+        for (Aggregator<A> aggregator : aggregators) {
+            aggregator.replaced(oldElement, entry);
+        }
+        publish(Change.Type.REPLACED, index, oldElement, element);
+        return oldElement;
+    }
+
+    @Override
+    public A remove(int index) {
+        Entry<A> entry = entries.remove(index);
+        modCount++;
+
+        for (Aggregator<A> aggregator : aggregators) {
+            aggregator.removed(entry.element, entry);
+        }
+        publish(Change.Type.REMOVED, index, entry.element, null);
+        return entry.element;
+    }
+
+    /**
+     * Removes all the elements and resets the aggregates in O(number of aggregates), a single CLEARED change is
+     * published instead of one REMOVED change per element
+     */
+    @Override
+    public void clear() {
+        if (entries.isEmpty()) return;
+
+        entries.clear();
+        modCount++;
+
+        for (Aggregator<A> aggregator : aggregators) {
+            aggregator.clear();
+        }
+        publish(Change.Type.CLEARED, 0, null, null);
+    }
+
+    /**
+     * @return an observable that emits every change of the list after it happens, it never completes
+     */
+    public Observable<Change<A>> changes() {
+        return changes.asObservable();
+    }
+
+    /**
+     * @param func -
+     * @return the sum of the values of the elements, as a long so it does not overflow
+     */
+    public Aggregate sumOfInt(IntFunc1<A> func) {
+        return register(new SumOfLong<>(asLongFunc(func)));
+    }
+
+    /**
+     * @param func -
+     * @return the sum of the values of the elements
+     */
+    public Aggregate sumOfLong(LongFunc1<A> func) {
+        return register(new SumOfLong<>(func));
+    }
+
+    /**
+     * @param predicate -
+     * @return the number of elements that match the predicate
+     */
+    public Aggregate countWhere(Predicate<A> predicate) {
+        return register(new CountWhere<>(predicate));
+    }
+
+    /**
+     * @param func -
+     * @return the minimum value of the elements, 0 if the list is empty like Lists.minOfInt
+     */
+    public Aggregate minOfInt(IntFunc1<A> func) {
+        return register(new ExtremeOfLong<>(asLongFunc(func), true, heapSlots++));
+    }
+
+    /**
+     * @param func -
+     * @return the maximum value of the elements, 0 if the list is empty like Lists.maxOfInt
+     */
+    public Aggregate maxOfInt(IntFunc1<A> func) {
+        return register(new ExtremeOfLong<>(asLongFunc(func), false, heapSlots++));
+    }
+
+    /**
+     * @param func -
+     * @return the minimum value of the elements, 0 if the list is empty
+     */
+    public Aggregate minOfLong(LongFunc1<A> func) {
+        return register(new ExtremeOfLong<>(func, true, heapSlots++));
+    }
+
+    /**
+     * @param func -
+     * @return the maximum value of the elements, 0 if the list is empty
+     */
+    public Aggregate maxOfLong(LongFunc1<A> func) {
+        return register(new ExtremeOfLong<>(func, false, heapSlots++));
+    }
+
+    /**
+     * @param func returns the value whose distinct occurrences are counted
+     * @return the number of distinct values of the elements, each value keeps a counter of its elements
+     */
+    public Aggregate distinctCount(Func1<A, ?> func) {
+        return register(new DistinctCount<>(func));
+    }
+
+    /**
+     * Adds the current elements to the aggregator and keeps it updated from now on, the aggregators that keep a heap
+     * need a new slot in every entry first
+     */
+    private Aggregate register(Aggregator<A> aggregator) {
+        for (Entry<A> entry : entries) {
+            if (entry.heapNodes.length < heapSlots) entry.heapNodes = Arrays.copyOf(entry.heapNodes, heapSlots);
+            aggregator.added(entry.element, entry);
+        }
+
+        aggregators.add(aggregator);
+        return new Aggregate(aggregator, changes);
+    }
+
+    private void publish(Change.Type type, int index, @Nullable A oldElement, @Nullable A newElement) {
+        if (changes.hasObservers()) changes.onNext(new Change<>(type, index, oldElement, newElement));
+    }
+
+    private static <A> LongFunc1<A> asLongFunc(final IntFunc1<A> func) {
+        return new LongFunc1<A>() {
+            @Override
+            public long call(A element) {
+                return func.call(element);
+            }
+        };
+    }
+
+    /**
+     * A change of the list, published after it happens
+     *
+     * @param <A> The type of the elements
+     */
+    public static final class Change<A> {
+
+        public enum Type {
+            ADDED, REMOVED, REPLACED, CLEARED
+        }
+
+        private final Type type;
+        private final int index;
+        private final A oldElement;
+        private final A newElement;
+
+        Change(Type type, int index, @Nullable A oldElement, @Nullable A newElement) {
+            this.type = type;
+            this.index = index;
+            this.oldElement = oldElement;
+            this.newElement = newElement;
+        }
+
+        public Type getType() {
+            return type;
+        }
+
+        /**
+         * @return the index of the added, removed or replaced element, 0 for CLEARED
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * @return the removed or replaced element, null for ADDED and CLEARED
+         */
+        @Nullable
+        public A getOldElement() {
+            return oldElement;
+        }
+
+        /**
+         * @return the added element or the one that replaced the old one, null for REMOVED and CLEARED
+         */
+        @Nullable
+        public A getNewElement() {
+            return newElement;
+        }
+
+        @Override
+        public String toString() {
+            return "Change{" +
+                    "type=" + type +
+                    ", index=" + index +
+                    ", oldElement=" + oldElement +
+                    ", newElement=" + newElement +
+                    '}';
+        }
+    }
+
+    /**
+     * Handle of an aggregate registered in a LiveList
+     */
+    public static final class Aggregate {
+
+        private final Aggregator<?> aggregator;
+        private final Observable<?> changes;
+
+        Aggregate(Aggregator<?> aggregator, Observable<?> changes) {
+            this.aggregator = aggregator;
+            this.changes = changes;
+        }
+
+        /**
+         * @return the current value of the aggregate
+         */
+        public long get() {
+            return aggregator.value();
+        }
+
+        /**
+         * @return an observable that emits the current value when subscribed and then every new value after a change of
+         * the list
+         */
+        public Observable<Long> values() {
+            return Observable.defer(new Func0<Observable<Long>>() {
+                @Override
+                public Observable<Long> call() {
+                    return changes.map(new Func1<Object, Long>() {
+                        @Override
+                        public Long call(Object change) {
+                            return get();
+                        }
+                    }).startWith(get());
+                }
+            }).distinctUntilChanged();
+        }
+    }
+
+    /**
+     * An element of the list and the nodes of the element in the heaps of the aggregators that keep one
+     */
+    private static final class Entry<A> {
+        A element;
+        IndexedLongHeap.Node[] heapNodes;
+
+        Entry(A element, int heapSlots) {
+            this.element = element;
+            this.heapNodes = new IndexedLongHeap.Node[heapSlots];
+        }
+    }
+
+    /**
+     * Keeps the state of an aggregate, it is told about every element that enters or leaves the list
+     */
+    private abstract static class Aggregator<A> {
+
+        abstract void added(A element, Entry<A> entry);
+
+        abstract void removed(A element, Entry<A> entry);
+
+        /**
+         * The entry already has the new element
+         */
+        void replaced(A oldElement, Entry<A> entry) {
+            removed(oldElement, entry);
+            added(entry.element, entry);
+        }
+
+        abstract void clear();
+
+        abstract long value();
+    }
+
+    private static final class SumOfLong<A> extends Aggregator<A> {
+
+        private final LongFunc1<A> func;
+        private long total;
+
+        SumOfLong(LongFunc1<A> func) {
+            this.func = func;
+        }
+
+        @Override
+        void added(A element, Entry<A> entry) {
+            total += func.call(element);
+        }
+
+        @Override
+        void removed(A element, Entry<A> entry) {
+            total -= func.call(element);
+        }
+
+        @Override
+        void clear() {
+            total = 0;
+        }
+
+        @Override
+        long value() {
+            return total;
+        }
+    }
+
+    private static final class CountWhere<A> extends Aggregator<A> {
+
+        private final Predicate<A> predicate;
+        private long count;
+
+        CountWhere(Predicate<A> predicate) {
+            this.predicate = predicate;
+        }
+
+        @Override
+        void added(A element, Entry<A> entry) {
+            if (predicate.call(element)) count++;
+        }
+
+        @Override
+        void removed(A element, Entry<A> entry) {
+            if (predicate.call(element)) count--;
+        }
+
+        @Override
+        void clear() {
+            count = 0;
+        }
+
+        @Override
+        long value() {
+            return count;
+        }
+    }
+
+    private static final class ExtremeOfLong<A> extends Aggregator<A> {
+
+        private final LongFunc1<A> func;
+        private final int slot;
+        private final IndexedLongHeap heap;
+
+        ExtremeOfLong(LongFunc1<A> func, boolean min, int slot) {
+            this.func = func;
+            this.slot = slot;
+            this.heap = new IndexedLongHeap(min);
+        }
+
+        @Override
+        void added(A element, Entry<A> entry) {
+            entry.heapNodes[slot] = heap.add(func.call(element));
+        }
+
+        @Override
+        void removed(A element, Entry<A> entry) {
+            heap.remove(entry.heapNodes[slot]);
+            entry.heapNodes[slot] = null;
+        }
+
+        @Override
+        void replaced(A oldElement, Entry<A> entry) {
+            heap.update(entry.heapNodes[slot], func.call(entry.element));
+        }
+
+        @Override
+        void clear() {
+            heap.clear();
+        }
+
+        @Override
+        long value() {
+            return heap.isEmpty() ? 0 : heap.root();
+        }
+    }
+
+    private static final class DistinctCount<A> extends Aggregator<A> {
+
+        private final Func1<A, ?> func;
+        private final HashMap<Object, int[]> counts = new HashMap<>();
+
+        DistinctCount(Func1<A, ?> func) {
+            this.func = func;
+        }
+
+        @Override
+        void added(A element, Entry<A> entry) {
+            Object value = func.call(element);
+            int[] count = counts.get(value);
+            if (count == null) {
+                counts.put(value, new int[]{1});
+            } else {
+                count[0]++;
+            }
+        }
+
+        @Override
+        void removed(A element, Entry<A> entry) {
+            Object value = func.call(element);
+            int[] count = counts.get(value);
+            if (--count[0] == 0) counts.remove(value);
+        }
+
+        @Override
+        void clear() {
+            counts.clear();
+        }
+
+        @Override
+        long value() {
+            return counts.size();
+        }
+    }
+}
@@ -0,0 +1,440 @@
+package com.danieldisu;
+
+import com.danieldisu.functions.LongFunc1;
+import com.danieldisu.functions.Predicate;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import rx.functions.Action1;
+import rx.functions.Func1;
+
+/**
+ * Records of a file mapped in memory, so big files can be filtered, mapped and counted without reading them into
+ * lists in the heap. The records are either delimited by new lines or have a fixed width.
+ * <p>
+ * Each record is given to the functions as a ByteBuffer view of the mapped file, from its position to its limit,
+ * without copying its bytes. Use asCharSequence to read a record as text. Files bigger than 2GB are mapped in several
+ * segments, cut at record boundaries.
+ * <p>
+ * The file is closed once it is mapped, and the mapping is released when the source and all its records are garbage
+ * collected. The file must not be truncated while it is mapped.
+ */
+public final class MappedRecordSource {
+
+    private static final int MAX_SEGMENT_SIZE = Integer.MAX_VALUE;
+    private static final int PARALLEL_CHUNK_SIZE = 1 << 20;
+    private static final int NEWLINE_DELIMITED = 0;
+
+    private static final Func1<ByteBuffer, CharSequence> AS_CHAR_SEQUENCE = new Func1<ByteBuffer, CharSequence>() {
+        @Override
+        public CharSequence call(ByteBuffer record) {
+            return asCharSequence(record);
+        }
+    };
+
+    private final List<ByteBuffer> segments;
+    private final int recordLength;
+
+    private MappedRecordSource(List<ByteBuffer> segments, int recordLength) {
+        this.segments = segments;
+        this.recordLength = recordLength;
+    }
+
+    /**
+     * Maps a file where each record ends with a new line. The new line, and a carriage return before it, are not part
+     * of the record, and the last record does not need to end with a new line.
+     *
+     * @param file -
+     * @return the source
+     * @throws IOException if the file cannot be mapped
+     */
+    public static MappedRecordSource newlineDelimited(File file) throws IOException {
+        return map(file, NEWLINE_DELIMITED, MAX_SEGMENT_SIZE);
+    }
+
+    /**
+     * Maps a file where every record has the same number of bytes
+     *
+     * @param file         -
+     * @param recordLength the number of bytes of each record
+     * @return the source
+     * @throws IOException if the file cannot be mapped or its size is not a multiple of the record length
+     */
+    public static MappedRecordSource fixedWidth(File file, int recordLength) throws IOException {
+        if (recordLength < 1) throw new IllegalArgumentException("recordLength must be positive: " + recordLength);
+
+        return map(file, recordLength, MAX_SEGMENT_SIZE);
+    }
+
+    static MappedRecordSource map(File file, int recordLength, int maxSegmentSize) throws IOException {
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = randomAccessFile.getChannel();
+            long fileSize = channel.size();
+
+            if (recordLength != NEWLINE_DELIMITED && fileSize % recordLength != 0) {
+                throw new IOException("The size of " + file + " is not a multiple of " + recordLength);
+            }
+
+            List<ByteBuffer> segments = new ArrayList<>();
+            long start = 0;
+            while (start < fileSize) {
+                ByteBuffer segment = mapSegment(channel, start, fileSize, recordLength, maxSegmentSize);
+                segments.add(segment);
+                start += segment.limit();
+            }
+            return new MappedRecordSource(segments, recordLength);
+        } finally {
+            randomAccessFile.close();
+        }
+    }
+
+    /**
+     * Maps the biggest segment starting at the given position that ends at a record boundary
+     */
+    private static ByteBuffer mapSegment(FileChannel channel, long start, long fileSize, int recordLength,
+                                         int maxSegmentSize) throws IOException {
+        int length = (int) Math.min(fileSize - start, maxSegmentSize);
+
+        if (recordLength != NEWLINE_DELIMITED) {
+            length -= length % recordLength;
+            if (length == 0) throw new IOException("A record is bigger than the segment size " + maxSegmentSize);
+        }
+
+        ByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+
+        if (recordLength == NEWLINE_DELIMITED && start + length < fileSize) {
+            int end = length - 1;
+            while (end >= 0 && segment.get(end) != '\n') {
+                end--;
+            }
+            if (end < 0) throw new IOException("A record is bigger than the segment size " + maxSegmentSize);
+            segment.limit(end + 1);
+        }
+
+        return segment;
+    }
+
+    /**
+     * Returns a view of the bytes of the record as text, each byte is read as an ISO-8859-1 character so it is only
+     * valid for single byte encodings like ASCII. The bytes are not copied until toString is called.
+     *
+     * @param record -
+     * @return the text of the record
+     */
+    public static CharSequence asCharSequence(ByteBuffer record) {
+        return new ByteCharSequence(record.slice());
+    }
+
+    /**
+     * Returns the records lazily, to chain more operations than the ones of this class
+     *
+     * @return the records of the file
+     */
+    public Sequence<ByteBuffer> records() {
+        return records(segments);
+    }
+
+    /**
+     * Same as records but each record is read with asCharSequence
+     *
+     * @return the records of the file as text
+     */
+    public Sequence<CharSequence> textRecords() {
+        return records().map(AS_CHAR_SEQUENCE);
+    }
+
+    /**
+     * Applies the function to each record
+     *
+     * @param functionToApply -
+     */
+    public void each(Action1<ByteBuffer> functionToApply) {
+        records().each(functionToApply);
+    }
+
+    /**
+     * @return the number of records of the file
+     */
+    public long count() {
+        if (recordLength != NEWLINE_DELIMITED) {
+            long size = 0;
+            for (ByteBuffer segment : segments) {
+                size += segment.limit();
+            }
+            return size / recordLength;
+        }
+
+        return countWhere(segments, null);
+    }
+
+    /**
+     * Returns the number of records that satisfy the predicate
+     *
+     * @param predicate -
+     * @return the count
+     */
+    public long countWhere(Predicate<ByteBuffer> predicate) {
+        return countWhere(segments, predicate);
+    }
+
+    /**
+     * Same as countWhere but the file is split in chunks that are scanned in parallel
+     *
+     * @param parallelLists the pool where the chunks are scanned
+     * @param predicate     -
+     * @return the count
+     */
+    public long countWhere(ParallelLists parallelLists, final Predicate<ByteBuffer> predicate) {
+        return parallelLists.withThreshold(1).sumOfLong(parallelChunks(), new LongFunc1<ByteBuffer>() {
+            @Override
+            public long call(ByteBuffer chunk) {
+                return countWhere(Collections.singletonList(chunk), predicate);
+            }
+        });
+    }
+
+    /**
+     * Returns the records that satisfy the predicate, the records are views of the file so they do not copy it
+     *
+     * @param predicate -
+     * @return a list with the records, in the same order as the file
+     */
+    public List<ByteBuffer> filter(Func1<ByteBuffer, Boolean> predicate) {
+        return records().filter(predicate).toList();
+    }
+
+    /**
+     * Same as filter but the file is split in chunks that are scanned in parallel
+     *
+     * @param parallelLists the pool where the chunks are scanned
+     * @param predicate     -
+     * @return a list with the records, in the same order as the file
+     */
+    public List<ByteBuffer> filter(ParallelLists parallelLists, final Func1<ByteBuffer, Boolean> predicate) {
+        return concat(parallelLists.withThreshold(1).map(parallelChunks(), new Func1<ByteBuffer, List<ByteBuffer>>() {
+            @Override
+            public List<ByteBuffer> call(ByteBuffer chunk) {
+                return records(Collections.singletonList(chunk)).filter(predicate).toList();
+            }
+        }));
+    }
+
+    /**
+     * Applies the function to each record
+     *
+     * @param functionToApply -
+     * @param <B>             The type of the elements of the returned list
+     * @return a list with the results, in the same order as the file
+     */
+    public <B> List<B> map(Func1<ByteBuffer, B> functionToApply) {
+        return records().map(functionToApply).toList();
+    }
+
+    /**
+     * Same as map but the file is split in chunks that are scanned in parallel
+     *
+     * @param parallelLists   the pool where the chunks are scanned
+     * @param functionToApply -
+     * @param <B>             The type of the elements of the returned list
+     * @return a list with the results, in the same order as the file
+     */
+    public <B> List<B> map(ParallelLists parallelLists, final Func1<ByteBuffer, B> functionToApply) {
+        return concat(parallelLists.withThreshold(1).map(parallelChunks(), new Func1<ByteBuffer, List<B>>() {
+            @Override
+            public List<B> call(ByteBuffer chunk) {
+                return records(Collections.singletonList(chunk)).map(functionToApply).toList();
+            }
+        }));
+    }
+
+    /**
+     * Returns the first record that satisfies the predicate
+     *
+     * @param predicate -
+     * @return the record, or null if there is none
+     */
+    @Nullable
+    public ByteBuffer find(Func1<ByteBuffer, Boolean> predicate) {
+        return records().find(predicate);
+    }
+
+    /**
+     * Same as find but the file is split in chunks that are scanned in parallel, it returns the same record as the
+     * sequential version
+     *
+     * @param parallelLists the pool where the chunks are scanned
+     * @param predicate     -
+     * @return the record, or null if there is none
+     */
+    @Nullable
+    public ByteBuffer find(ParallelLists parallelLists, final Func1<ByteBuffer, Boolean> predicate) {
+        ByteBuffer chunk = parallelLists.withThreshold(1).find(parallelChunks(), new Func1<ByteBuffer, Boolean>() {
+            @Override
+            public Boolean call(ByteBuffer chunk) {
+                return records(Collections.singletonList(chunk)).any(predicate);
+            }
+        });
+
+        return chunk == null ? null : records(Collections.singletonList(chunk)).find(predicate);
+    }
+
+    private Sequence<ByteBuffer> records(final List<ByteBuffer> chunks) {
+        return Sequence.from(new Iterable<ByteBuffer>() {
+            @Override
+            public Iterator<ByteBuffer> iterator() {
+                return new RecordIterator(chunks, recordLength);
+            }
+        });
+    }
+
+    /**
+     * Counts the records of the chunks that satisfy the predicate, or all of them if the predicate is null
+     */
+    private long countWhere(List<ByteBuffer> chunks, @Nullable Predicate<ByteBuffer> predicate) {
+        long count = 0;
+        Iterator<ByteBuffer> iterator = new RecordIterator(chunks, recordLength);
+
+        while (iterator.hasNext()) {
+            ByteBuffer record = iterator.next();
+            if (predicate == null || predicate.call(record)) count++;
+        }
+
+        return count;
+    }
+
+    /**
+     * Splits the segments in chunks of about PARALLEL_CHUNK_SIZE bytes that end at a record boundary
+     */
+    private List<ByteBuffer> parallelChunks() {
+        int chunkSize = recordLength == NEWLINE_DELIMITED
+                ? PARALLEL_CHUNK_SIZE
+                : Math.max(recordLength, PARALLEL_CHUNK_SIZE - PARALLEL_CHUNK_SIZE % recordLength);
+        List<ByteBuffer> chunks = new ArrayList<>();
+
+        for (ByteBuffer segment : segments) {
+            int limit = segment.limit();
+            int start = 0;
+            while (start < limit) {
+                int end = start + Math.min(limit - start, chunkSize);
+                if (recordLength == NEWLINE_DELIMITED) {
+                    while (end < limit && segment.get(end - 1) != '\n') {
+                        end++;
+                    }
+                }
+                chunks.add(slice(segment, start, end));
+                start = end;
+            }
+        }
+
+        return chunks;
+    }
+
+    private static <B> List<B> concat(List<List<B>> parts) {
+        int size = 0;
+        for (List<B> part : parts) {
+            size += part.size();
+        }
+
+        List<B> result = new ArrayList<>(size);
+        for (List<B> part : parts) {
+            result.addAll(part);
+        }
+        return result;
+    }
+
+    private static ByteBuffer slice(ByteBuffer buffer, int from, int to) {
+        ByteBuffer view = buffer.duplicate();
+        view.limit(to);
+        view.position(from);
+        return view.slice();
+    }
+
+    /**
+     * Iterates the records of a list of chunks that start and end at record boundaries
+     */
+    private static final class RecordIterator extends LazyIterator<ByteBuffer> {
+
+        private final List<ByteBuffer> chunks;
+        private final int recordLength;
+        private int chunkIndex;
+        private int position;
+
+        RecordIterator(List<ByteBuffer> chunks, int recordLength) {
+            this.chunks = chunks;
+            this.recordLength = recordLength;
+        }
+
+        @Override
+        protected ByteBuffer computeNext() {
+            while (chunkIndex < chunks.size() && position == chunks.get(chunkIndex).limit()) {
+                chunkIndex++;
+                position = 0;
+            }
+            if (chunkIndex == chunks.size()) return done();
+
+            ByteBuffer chunk = chunks.get(chunkIndex);
+            int start = position;
+
+            if (recordLength != NEWLINE_DELIMITED) {
+                position += recordLength;
+                return slice(chunk, start, position);
+            }
+
+            int limit = chunk.limit();
+            int end = start;
+            while (end < limit && chunk.get(end) != '\n') {
+                end++;
+            }
+            position = end < limit ? end + 1 : limit;
+
+            if (end > start && chunk.get(end - 1) == '\r') end--;
+            return slice(chunk, start, end);
+        }
+    }
+
+    /**
+     * Text view of a buffer where each byte is a character
+     */
+    private static final class ByteCharSequence implements CharSequence {
+
+        private final ByteBuffer bytes;
+
+        ByteCharSequence(ByteBuffer bytes) {
+            this.bytes = bytes;
+        }
+
+        @Override
+        public int length() {
+            return bytes.limit();
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (bytes.get(index) & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new ByteCharSequence(slice(bytes, start, end));
+        }
+
+        @Override
+        public String toString() {
+            byte[] copy = new byte[bytes.limit()];
+            bytes.duplicate().get(copy);
+            return new String(copy, StandardCharsets.ISO_8859_1);
+        }
+    }
+}
@@ -0,0 +1,410 @@
+package com.danieldisu;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+import rx.functions.Func1;
+
+/**
+ * Func1 that caches the results of another Func1, so it can be given to map, filteredMap or findMap instead of a
+ * costly function that is called with repeated elements. Null elements and null results are cached too.
+ * <p>
+ * The cache is split in segments, each one with its own lock, so calls from several threads only wait for each other
+ * when their elements fall in the same segment. The wrapped function is called outside the lock, so two threads that
+ * miss the same element at the same time can both call it, and the first result is the one that is kept.
+ * <p>
+ * The cache can be bounded, evicting the least recently used (LRU) or the least frequently used (LFU) results. The
+ * maximum size is split between the segments and rounded up, so the least used results of the whole cache are not
+ * always the first ones evicted. With weak keys the results are removed once their element is garbage collected, like
+ * in a WeakHashMap.
+ *
+ * @param <A> The type of the argument
+ * @param <B> The type of the result
+ */
+public final class MemoizedFunc1<A, B> implements Func1<A, B> {
+
+    /**
+     * What a bounded cache evicts when it is full
+     */
+    public enum EvictionPolicy {
+        /**
+         * Evicts the result that was not used for the longest time
+         */
+        LRU,
+        /**
+         * Evicts the result that was used the fewest times, the least recently added one if there are several
+         */
+        LFU
+    }
+
+    private static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+    private static final int MAX_SEGMENTS = 1 << 16;
+    private static final Object NULL = new Object();
+
+    private final Func1<A, B> function;
+    private final boolean weakKeys;
+    private final Segment[] segments;
+    private final int segmentMask;
+
+    private MemoizedFunc1(Builder<A, B> builder) {
+        this.function = builder.function;
+        this.weakKeys = builder.weakKeys;
+
+        int segmentCount = 1;
+        while (segmentCount < builder.concurrencyLevel && segmentCount < MAX_SEGMENTS
+                && segmentCount * 2 <= builder.maximumSize) {
+            segmentCount *= 2;
+        }
+
+        this.segments = new Segment[segmentCount];
+        this.segmentMask = segmentCount - 1;
+
+        int segmentCapacity = builder.maximumSize == Integer.MAX_VALUE
+                ? Integer.MAX_VALUE
+                : (builder.maximumSize + segmentCount - 1) / segmentCount;
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = builder.evictionPolicy == EvictionPolicy.LFU && segmentCapacity != Integer.MAX_VALUE
+                    ? new LfuSegment(segmentCapacity)
+                    : new LruSegment(segmentCapacity);
+        }
+    }
+
+    /**
+     * Returns an unbounded cache of the function with strong keys, use builder to bound it
+     *
+     * @param function the function to cache
+     * @param <A>      The type of the argument
+     * @param <B>      The type of the result
+     * @return the cached function
+     */
+    public static <A, B> MemoizedFunc1<A, B> of(Func1<A, B> function) {
+        return builder(function).build();
+    }
+
+    /**
+     * Returns a builder to configure the cache of the function
+     *
+     * @param function the function to cache
+     * @param <A>      The type of the argument
+     * @param <B>      The type of the result
+     * @return the builder
+     */
+    public static <A, B> Builder<A, B> builder(Func1<A, B> function) {
+        return new Builder<>(function);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public B call(A element) {
+        Object key = element == null ? NULL : element;
+        int hash = spread(key.hashCode());
+        Segment segment = segments[hash & segmentMask];
+
+        Object cached = segment.get(weakKeys && key != NULL ? new LookupKey(key, hash) : key);
+        if (cached != null) return cached == NULL ? null : (B) cached;
+
+        B result = function.call(element);
+
+        Object storedKey = weakKeys && key != NULL ? new WeakKey(key, hash, segment.queue) : key;
+        Object existing = segment.putIfAbsent(storedKey, result == null ? NULL : result);
+        if (existing != null) return existing == NULL ? null : (B) existing;
+        return result;
+    }
+
+    /**
+     * @return the statistics of the cache since it was created
+     */
+    public CacheStats stats() {
+        long hits = 0;
+        long misses = 0;
+        long evictions = 0;
+        int size = 0;
+
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.expungeStaleKeys();
+                hits += segment.hits;
+                misses += segment.misses;
+                evictions += segment.evictions;
+                size += segment.size();
+            }
+        }
+
+        return new CacheStats(hits, misses, evictions, size);
+    }
+
+    /**
+     * Removes all the cached results, the statistics are kept
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    /**
+     * Spreads the bits of the hash code so the segment and the bucket inside it do not depend on the same bits
+     */
+    private static int spread(int hashCode) {
+        int hash = hashCode * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Configures a MemoizedFunc1, by default the cache is unbounded, has strong keys and 16 segments
+     *
+     * @param <A> The type of the argument
+     * @param <B> The type of the result
+     */
+    public static final class Builder<A, B> {
+
+        private final Func1<A, B> function;
+        private int maximumSize = Integer.MAX_VALUE;
+        private EvictionPolicy evictionPolicy = EvictionPolicy.LRU;
+        private boolean weakKeys;
+        private int concurrencyLevel = DEFAULT_CONCURRENCY_LEVEL;
+
+        private Builder(Func1<A, B> function) {
+            if (function == null) throw new IllegalArgumentException("function must not be null");
+            this.function = function;
+        }
+
+        /**
+         * Bounds the number of cached results, evicting with the given policy when the cache is full
+         *
+         * @param maximumSize    -
+         * @param evictionPolicy -
+         * @return this builder
+         */
+        public Builder<A, B> maximumSize(int maximumSize, EvictionPolicy evictionPolicy) {
+            if (maximumSize < 1) throw new IllegalArgumentException("maximumSize must be positive: " + maximumSize);
+            if (evictionPolicy == null) throw new IllegalArgumentException("evictionPolicy must not be null");
+            this.maximumSize = maximumSize;
+            this.evictionPolicy = evictionPolicy;
+            return this;
+        }
+
+        /**
+         * Keeps the elements in weak references, so their results are removed when they are garbage collected. The
+         * elements are still compared with equals.
+         *
+         * @return this builder
+         */
+        public Builder<A, B> weakKeys() {
+            this.weakKeys = true;
+            return this;
+        }
+
+        /**
+         * Sets the number of threads expected to call the function at the same time, the cache has as many segments
+         * rounded up to a power of two, and never more than the maximum size
+         *
+         * @param concurrencyLevel -
+         * @return this builder
+         */
+        public Builder<A, B> concurrencyLevel(int concurrencyLevel) {
+            if (concurrencyLevel < 1) {
+                throw new IllegalArgumentException("concurrencyLevel must be positive: " + concurrencyLevel);
+            }
+            this.concurrencyLevel = concurrencyLevel;
+            return this;
+        }
+
+        public MemoizedFunc1<A, B> build() {
+            return new MemoizedFunc1<>(this);
+        }
+    }
+
+    /**
+     * Part of the cache guarded by its own lock, it also keeps its part of the statistics. The subclasses only store
+     * the entries, the keys are the elements, or a WeakKey when the cache has weak keys.
+     */
+    private abstract static class Segment {
+
+        final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+        long hits;
+        long misses;
+        long evictions;
+
+        abstract Object find(Object key);
+
+        /**
+         * Stores the entry and returns true if another one was evicted to make room for it
+         */
+        abstract boolean store(Object key, Object value);
+
+        abstract void delete(Object key);
+
+        abstract int size();
+
+        abstract void clear();
+
+        synchronized Object get(Object key) {
+            expungeStaleKeys();
+
+            Object value = find(key);
+            if (value != null) {
+                hits++;
+            } else {
+                misses++;
+            }
+            return value;
+        }
+
+        synchronized Object putIfAbsent(Object key, Object value) {
+            expungeStaleKeys();
+
+            Object existing = find(key);
+            if (existing != null) return existing;
+
+            if (store(key, value)) evictions++;
+            return null;
+        }
+
+        /**
+         * Removes the entries whose weak key was garbage collected
+         */
+        void expungeStaleKeys() {
+            Reference<?> reference;
+            while ((reference = queue.poll()) != null) {
+                delete(reference);
+            }
+        }
+    }
+
+    private static final class LruSegment extends Segment {
+
+        private final int capacity;
+        private final LinkedHashMap<Object, Object> entries;
+
+        LruSegment(int capacity) {
+            this.capacity = capacity;
+            // an unbounded cache never evicts, so it does not need to reorder the entries on each access
+            this.entries = new LinkedHashMap<>(16, 0.75f, capacity != Integer.MAX_VALUE);
+        }
+
+        @Override
+        Object find(Object key) {
+            return entries.get(key);
+        }
+
+        @Override
+        boolean store(Object key, Object value) {
+            entries.put(key, value);
+            if (entries.size() <= capacity) return false;
+
+            Iterator<Object> iterator = entries.keySet().iterator();
+            iterator.next();
+            iterator.remove();
+            return true;
+        }
+
+        @Override
+        void delete(Object key) {
+            entries.remove(key);
+        }
+
+        @Override
+        int size() {
+            return entries.size();
+        }
+
+        @Override
+        void clear() {
+            entries.clear();
+        }
+    }
+
+    private static final class LfuSegment extends Segment {
+
+        private final LfuMap<Object, Object> entries;
+
+        LfuSegment(int capacity) {
+            this.entries = new LfuMap<>(capacity);
+        }
+
+        @Override
+        Object find(Object key) {
+            return entries.get(key);
+        }
+
+        @Override
+        boolean store(Object key, Object value) {
+            return entries.put(key, value);
+        }
+
+        @Override
+        void delete(Object key) {
+            entries.remove(key);
+        }
+
+        @Override
+        int size() {
+            return entries.size();
+        }
+
+        @Override
+        void clear() {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Weak reference to an element that is equal to the other keys of the same element. Once the element is collected
+     * it is only equal to itself, so it can still be removed from the segment.
+     */
+    private static final class WeakKey extends WeakReference<Object> {
+
+        private final int hash;
+
+        WeakKey(Object element, int hash, ReferenceQueue<Object> queue) {
+            super(element, queue);
+            this.hash = hash;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) return true;
+
+            Object element = get();
+            if (element == null) return false;
+            if (other instanceof WeakKey) return element.equals(((WeakKey) other).get());
+            return other instanceof LookupKey && element.equals(((LookupKey) other).element);
+        }
+    }
+
+    /**
+     * Key used to look up an element in a cache with weak keys, it has the same hash code as its WeakKey
+     */
+    private static final class LookupKey {
+
+        private final Object element;
+        private final int hash;
+
+        LookupKey(Object element, int hash) {
+            this.element = element;
+            this.hash = hash;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (other instanceof WeakKey) return element.equals(((WeakKey) other).get());
+            return other instanceof LookupKey && element.equals(((LookupKey) other).element);
+        }
+    }
+}
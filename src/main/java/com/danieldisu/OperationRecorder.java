@@ -0,0 +1,122 @@
+package com.danieldisu;
+
+import rx.functions.Func1;
+import rx.functions.Func2;
+
+/**
+ * Measures one call to an instrumented operation and reports it to the listener when it finishes
+ */
+final class OperationRecorder {
+
+    private static final int ARRAY_LIST_DEFAULT_CAPACITY = 10;
+    private static final int HASH_SET_DEFAULT_CAPACITY = 16;
+
+    private final ListsListener listener;
+    private final String operation;
+    private final int inputSize;
+    private final long startNanos;
+    private long functionNanos;
+    private int functionCalls;
+
+    OperationRecorder(ListsListener listener, String operation, int inputSize) {
+        this.listener = listener;
+        this.operation = operation;
+        this.inputSize = inputSize;
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * Wraps the function so the time spent in it is recorded
+     */
+    <A, B> Func1<A, B> time(final Func1<A, B> function) {
+        return new Func1<A, B>() {
+            @Override
+            public B call(A a) {
+                long start = System.nanoTime();
+                try {
+                    return function.call(a);
+                } finally {
+                    functionNanos += System.nanoTime() - start;
+                    functionCalls++;
+                }
+            }
+        };
+    }
+
+    /**
+     * Wraps the function so the time spent in it is recorded
+     */
+    <A, B, C> Func2<A, B, C> time(final Func2<A, B, C> function) {
+        return new Func2<A, B, C>() {
+            @Override
+            public C call(A a, B b) {
+                long start = System.nanoTime();
+                try {
+                    return function.call(a, b);
+                } finally {
+                    functionNanos += System.nanoTime() - start;
+                    functionCalls++;
+                }
+            }
+        };
+    }
+
+    /**
+     * Reports an operation whose result is an ArrayList created with the given capacity, 0 for the default one
+     */
+    void finishList(int outputSize, int initialCapacity) {
+        finish(outputSize, listResizes(initialCapacity, outputSize));
+    }
+
+    /**
+     * Reports an operation whose result is a HashSet created with the given capacity, 0 for the default one
+     */
+    void finishSet(int outputSize, int initialCapacity) {
+        finish(outputSize, hashResizes(initialCapacity, outputSize));
+    }
+
+    private void finish(int outputSize, int resizes) {
+        long totalNanos = System.nanoTime() - startNanos;
+        listener.onOperation(new OperationStats(operation, inputSize, outputSize, totalNanos, functionNanos,
+                functionCalls, resizes));
+    }
+
+    /**
+     * Number of times an ArrayList grows to hold the given number of elements, counting the allocation of the first
+     * array when it was created with the default capacity
+     */
+    static int listResizes(int initialCapacity, int size) {
+        if (size <= initialCapacity) return 0;
+
+        int resizes = 0;
+        long capacity = initialCapacity;
+
+        if (capacity == 0) {
+            capacity = ARRAY_LIST_DEFAULT_CAPACITY;
+            resizes++;
+        }
+
+        while (capacity < size) {
+            capacity = Math.max(capacity + (capacity >> 1), capacity + 1);
+            resizes++;
+        }
+
+        return resizes;
+    }
+
+    /**
+     * Number of times a HashSet rehashes to hold the given number of elements, with the default load factor
+     */
+    static int hashResizes(int initialCapacity, int size) {
+        long capacity = Integer.highestOneBit(Math.max(initialCapacity == 0 ? HASH_SET_DEFAULT_CAPACITY : initialCapacity, 1));
+        if (capacity < initialCapacity) capacity <<= 1;
+
+        int resizes = 0;
+        while (size > capacity * 3 / 4) {
+            capacity <<= 1;
+            resizes++;
+        }
+
+        return resizes;
+    }
+}
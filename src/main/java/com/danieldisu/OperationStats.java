@@ -0,0 +1,95 @@
+package com.danieldisu;
+
+/**
+ * Statistics of one call to an instrumented Lists operation
+ */
+public final class OperationStats {
+
+    private final String operation;
+    private final int inputSize;
+    private final int outputSize;
+    private final long totalNanos;
+    private final long functionNanos;
+    private final int functionCalls;
+    private final int resizes;
+
+    OperationStats(String operation, int inputSize, int outputSize, long totalNanos, long functionNanos,
+                   int functionCalls, int resizes) {
+        this.operation = operation;
+        this.inputSize = inputSize;
+        this.outputSize = outputSize;
+        this.totalNanos = totalNanos;
+        this.functionNanos = functionNanos;
+        this.functionCalls = functionCalls;
+        this.resizes = resizes;
+    }
+
+    /**
+     * @return the name of the Lists method, like "map" or "filter"
+     */
+    public String getOperation() {
+        return operation;
+    }
+
+    /**
+     * @return the number of elements of the input, 0 if it was null
+     */
+    public int getInputSize() {
+        return inputSize;
+    }
+
+    /**
+     * @return the number of elements of the result
+     */
+    public int getOutputSize() {
+        return outputSize;
+    }
+
+    /**
+     * @return the time spent in the whole operation
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * @return the time spent inside the function given to the operation
+     */
+    public long getFunctionNanos() {
+        return functionNanos;
+    }
+
+    /**
+     * @return the time spent in the library, the total time minus the time spent in the function
+     */
+    public long getLibraryNanos() {
+        return totalNanos - functionNanos;
+    }
+
+    /**
+     * @return the number of times the function given to the operation was called
+     */
+    public int getFunctionCalls() {
+        return functionCalls;
+    }
+
+    /**
+     * @return the number of times the result had to grow, estimated from the growth policy of ArrayList and HashSet
+     */
+    public int getResizes() {
+        return resizes;
+    }
+
+    @Override
+    public String toString() {
+        return "OperationStats{" +
+                "operation='" + operation + '\'' +
+                ", inputSize=" + inputSize +
+                ", outputSize=" + outputSize +
+                ", totalNanos=" + totalNanos +
+                ", functionNanos=" + functionNanos +
+                ", functionCalls=" + functionCalls +
+                ", resizes=" + resizes +
+                '}';
+    }
+}
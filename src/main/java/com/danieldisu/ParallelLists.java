@@ -0,0 +1,734 @@
+package com.danieldisu;
+
+import com.danieldisu.functions.IntFunc1;
+import com.danieldisu.functions.LongFunc1;
+import com.danieldisu.functions.Predicate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nullable;
+
+import rx.functions.Func1;
+import rx.functions.Func2;
+
+/**
+ * Parallel versions of the Lists operations, the input is split in ranges that are processed by a ForkJoinPool.
+ * Ranges smaller than the threshold are not split anymore, and inputs smaller than the threshold are processed in the
+ * calling thread using Lists. The results of map, mapOrdered, filter and filteredMap keep the order of the input.
+ * <p>
+ * The functions are called from several threads at the same time so they must be thread safe.
+ */
+public final class ParallelLists {
+
+    public static final int DEFAULT_THRESHOLD = 1024;
+
+    private static final class DefaultInstanceHolder {
+        static final ParallelLists INSTANCE = new ParallelLists(new ForkJoinPool(), DEFAULT_THRESHOLD);
+    }
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    private ParallelLists(ForkJoinPool pool, int threshold) {
+        if (pool == null) throw new IllegalArgumentException("pool must not be null");
+        if (threshold < 1) throw new IllegalArgumentException("threshold must be positive: " + threshold);
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Returns an instance that uses a shared pool with one thread per processor and the default threshold
+     */
+    public static ParallelLists defaultInstance() {
+        return DefaultInstanceHolder.INSTANCE;
+    }
+
+    /**
+     * Returns an instance that runs the operations in the given pool
+     *
+     * @param pool      -
+     * @param threshold the number of elements below which a range is processed sequentially
+     * @return the instance
+     */
+    public static ParallelLists create(ForkJoinPool pool, int threshold) {
+        return new ParallelLists(pool, threshold);
+    }
+
+    /**
+     * Returns an instance that uses the same pool but with a different threshold
+     *
+     * @param threshold the number of elements below which a range is processed sequentially
+     * @return the instance
+     */
+    public ParallelLists withThreshold(int threshold) {
+        return new ParallelLists(pool, threshold);
+    }
+
+    /**
+     * Parallel version of Lists.map
+     *
+     * @param originalList    -
+     * @param functionToApply -
+     * @param <A>             The type of the elements of the original list
+     * @param <B>             The type of the elements of the returned list
+     * @return Returns a list of B elements, in the same order as the original list
+     */
+    public <A, B> List<B> map(Collection<A> originalList, final Func1<A, B> functionToApply) {
+        if (isSmall(originalList)) return Lists.map(originalList, functionToApply);
+
+        final List<A> elements = randomAccess(originalList);
+        final Object[] results = new Object[elements.size()];
+
+        invoke(new RangeAction(0, elements.size(), threshold) {
+            @Override
+            long computeRange(int from, int to) {
+                for (int i = from; i < to; i++) {
+                    results[i] = functionToApply.call(elements.get(i));
+                }
+                return 0;
+            }
+        });
+
+        return toList(results, results.length);
+    }
+
+    /**
+     * Parallel version of Lists.mapOrdered
+     *
+     * @param originalList    -
+     * @param functionToApply -
+     * @param <A>             The type of the elements of the original list
+     * @param <B>             The type of the elements of the returned list
+     * @return Returns a list of B elements, in the same order as the original list
+     */
+    public <A, B> List<B> mapOrdered(List<A> originalList, final Func2<A, Integer, B> functionToApply) {
+        if (isSmall(originalList)) return Lists.mapOrdered(originalList, functionToApply);
+
+        final List<A> elements = randomAccess(originalList);
+        final Object[] results = new Object[elements.size()];
+
+        invoke(new RangeAction(0, elements.size(), threshold) {
+            @Override
+            long computeRange(int from, int to) {
+                for (int i = from; i < to; i++) {
+                    results[i] = functionToApply.call(elements.get(i), i);
+                }
+                return 0;
+            }
+        });
+
+        return toList(results, results.length);
+    }
+
+    /**
+     * Parallel version of Lists.filteredMap
+     *
+     * @param originalList    -
+     * @param functionToApply -
+     * @param <A>             The type of the elements of the original list
+     * @param <B>             The type of the elements of the returned list
+     * @return Returns a list with the non null results, in the same order as the original list
+     */
+    public <A, B> List<B> filteredMap(Collection<A> originalList, final Func1<A, B> functionToApply) {
+        if (isSmall(originalList)) return Lists.filteredMap(originalList, functionToApply);
+
+        final List<A> elements = randomAccess(originalList);
+        final Object[] results = new Object[elements.size()];
+
+        long found = invoke(new RangeAction(0, elements.size(), threshold) {
+            @Override
+            long computeRange(int from, int to) {
+                long found = 0;
+                for (int i = from; i < to; i++) {
+                    Object result = functionToApply.call(elements.get(i));
+                    results[i] = result;
+                    if (result != null) found++;
+                }
+                return found;
+            }
+        });
+
+        return compact(results, (int) found);
+    }
+
+    /**
+     * Parallel version of Lists.filter
+     *
+     * @param originalList -
+     * @param func         a func that returns true if the element should be in the returning list
+     * @param <A>          The type of the elements of the original list
+     * @return a list with all the elements that the result of the func was true, in the same order as the original list
+     */
+    public <A> List<A> filter(Collection<A> originalList, final Func1<A, Boolean> func) {
+        if (isSmall(originalList)) return Lists.filter(originalList, func);
+
+        final List<A> elements = randomAccess(originalList);
+        final boolean[] included = new boolean[elements.size()];
+
+        long found = invoke(new RangeAction(0, elements.size(), threshold) {
+            @Override
+            long computeRange(int from, int to) {
+                long found = 0;
+                for (int i = from; i < to; i++) {
+                    if (func.call(elements.get(i))) {
+                        included[i] = true;
+                        found++;
+                    }
+                }
+                return found;
+            }
+        });
+
+        Object[] filtered = new Object[(int) found];
+        int position = 0;
+        for (int i = 0; i < included.length; i++) {
+            if (included[i]) filtered[position++] = elements.get(i);
+        }
+
+        return toList(filtered, filtered.length);
+    }
+
+    /**
+     * Parallel version of Lists.count
+     *
+     * @param originalList -
+     * @param predicate    -
+     * @param <A>          The type of the elements of the original list
+     * @return the number of elements that matches the predicate
+     */
+    public <A> int count(Collection<A> originalList, final Func1<A, Boolean> predicate) {
+        if (isSmall(originalList)) return Lists.count(originalList, predicate);
+
+        final List<A> elements = randomAccess(originalList);
+
+        return (int) invoke(new RangeAction(0, elements.size(), threshold) {
+            @Override
+            long computeRange(int from, int to) {
+                long count = 0;
+                for (int i = from; i < to; i++) {
+                    if (predicate.call(elements.get(i))) count++;
+                }
+                return count;
+            }
+        });
+    }
+
+    /**
+     * Parallel version of Lists.countWhere
+     *
+     * @param originalList -
+     * @param predicate    -
+     * @param <A>          The type of the elements of the original list
+     * @return the number of elements that matches the predicate
+     */
+    public <A> int countWhere(Collection<A> originalList, final Predicate<A> predicate) {
+        if (isSmall(originalList)) return Lists.countWhere(originalList, predicate);
+
+        final List<A> elements = randomAccess(originalList);
+
+        return (int) invoke(new RangeAction(0, elements.size(), threshold) {
+            @Override
+            long computeRange(int from, int to) {
+                long count = 0;
+                for (int i = from; i < to; i++) {
+                    if (predicate.call(elements.get(i))) count++;
+                }
+                return count;
+            }
+        });
+    }
+
+    /**
+     * Parallel version of Lists.sumOfInt, the result overflows in the same way as the sequential version
+     *
+     * @param originalList -
+     * @param func         -
+     * @param <A>          The type of the elements of the original list
+     * @return the sum of the values
+     */
+    public <A> int sumOfInt(Collection<A> originalList, final IntFunc1<A> func) {
+        if (isSmall(originalList)) return Lists.sumOfInt(originalList, func);
+
+        final List<A> elements = randomAccess(originalList);
+
+        return (int) invoke(new RangeAction(0, elements.size(), threshold) {
+            @Override
+            long computeRange(int from, int to) {
+                int total = 0;
+                for (int i = from; i < to; i++) {
+                    total += func.call(elements.get(i));
+                }
+                return total;
+            }
+        });
+    }
+
+    /**
+     * Parallel version of Lists.sumOfLong
+     *
+     * @param originalList -
+     * @param func         -
+     * @param <A>          The type of the elements of the original list
+     * @return the sum of the values
+     */
+    public <A> long sumOfLong(Collection<A> originalList, final LongFunc1<A> func) {
+        if (isSmall(originalList)) return Lists.sumOfLong(originalList, func);
+
+        final List<A> elements = randomAccess(originalList);
+
+        return invoke(new RangeAction(0, elements.size(), threshold) {
+            @Override
+            long computeRange(int from, int to) {
+                long total = 0;
+                for (int i = from; i < to; i++) {
+                    total += func.call(elements.get(i));
+                }
+                return total;
+            }
+        });
+    }
+
+    /**
+     * Parallel version of Lists.indexOf, the ranges after a match stop as soon as it is found
+     *
+     * @param originalList -
+     * @param func         -
+     * @param <A>          The type of the elements of the original list
+     * @return the index of the first element that passes the predicate, or -1
+     */
+    public <A> int indexOf(List<A> originalList, Func1<A, Boolean> func) {
+        if (isSmall(originalList)) return Lists.indexOf(originalList, func);
+
+        List<A> elements = randomAccess(originalList);
+        int index = search(elements, func, true);
+        return index == elements.size() ? -1 : index;
+    }
+
+    /**
+     * Parallel version of Lists.find, returns the same element as the sequential version
+     *
+     * @param originalList -
+     * @param predicate    -
+     * @param <A>          The type of the elements of the original list
+     * @return Returns the first element that fulfill the predicate
+     */
+    @Nullable
+    public <A> A find(Collection<A> originalList, Func1<A, Boolean> predicate) {
+        if (isSmall(originalList)) return Lists.find(originalList, predicate);
+
+        List<A> elements = randomAccess(originalList);
+        int index = search(elements, predicate, true);
+        return index == elements.size() ? null : elements.get(index);
+    }
+
+    /**
+     * Parallel version of Lists.any, all the ranges stop as soon as a match is found
+     *
+     * @param originalList -
+     * @param predicate    -
+     * @param <A>          The type of the elements of the original list
+     * @return Returns true if any element matches the predicate
+     */
+    public <A> boolean any(Collection<A> originalList, Func1<A, Boolean> predicate) {
+        if (isSmall(originalList)) return Lists.any(originalList, predicate);
+
+        List<A> elements = randomAccess(originalList);
+        return search(elements, predicate, false) != elements.size();
+    }
+
+    /**
+     * Parallel version of Lists.all, all the ranges stop as soon as an element does not match
+     *
+     * @param originalList -
+     * @param predicate    -
+     * @param <A>          The type of the elements of the original list
+     * @return Returns true if ALL element matches the predicate, false if the list is empty
+     */
+    public <A> boolean all(Collection<A> originalList, final Func1<A, Boolean> predicate) {
+        if (isSmall(originalList)) return Lists.all(originalList, predicate);
+
+        List<A> elements = randomAccess(originalList);
+        Func1<A, Boolean> negated = new Func1<A, Boolean>() {
+            @Override
+            public Boolean call(A element) {
+                return !predicate.call(element);
+            }
+        };
+        return search(elements, negated, false) == elements.size();
+    }
+
+    /**
+     * Parallel version of Lists.innerJoin, the hash table is built in the calling thread and the left collection is
+     * probed in parallel
+     *
+     * @param left     -
+     * @param right    -
+     * @param leftKey  returns the key of an element of the left collection
+     * @param rightKey returns the key of an element of the right collection
+     * @param combiner returns the result of a left element and a right element with the same key
+     * @param <A>      The type of the elements of the left collection
+     * @param <B>      The type of the elements of the right collection
+     * @param <K>      The type of the keys
+     * @param <C>      The type of the elements of the returned list
+     * @return the same list as Lists.innerJoin
+     */
+    public <A, B, K, C> List<C> innerJoin(Collection<A> left, Collection<B> right, Func1<A, K> leftKey,
+                                          Func1<B, K> rightKey, Func2<A, B, C> combiner) {
+        if (isSmall(left) || right == null || right.isEmpty()) {
+            return Lists.innerJoin(left, right, leftKey, rightKey, combiner);
+        }
+
+        Map<K, List<B>> matches = Lists.joinTable(left, right, leftKey, rightKey);
+        return probe(left, matches, leftKey, combiner, false);
+    }
+
+    /**
+     * Parallel version of Lists.leftJoin, the hash table is built in the calling thread and the left collection is
+     * probed in parallel
+     *
+     * @param left     -
+     * @param right    -
+     * @param leftKey  returns the key of an element of the left collection
+     * @param rightKey returns the key of an element of the right collection
+     * @param combiner returns the result of a left element and a right element with the same key, or null
+     * @param <A>      The type of the elements of the left collection
+     * @param <B>      The type of the elements of the right collection
+     * @param <K>      The type of the keys
+     * @param <C>      The type of the elements of the returned list
+     * @return the same list as Lists.leftJoin
+     */
+    public <A, B, K, C> List<C> leftJoin(Collection<A> left, Collection<B> right, Func1<A, K> leftKey,
+                                         Func1<B, K> rightKey, Func2<A, B, C> combiner) {
+        if (isSmall(left)) return Lists.leftJoin(left, right, leftKey, rightKey, combiner);
+
+        Map<K, List<B>> matches = Lists.joinTable(left, right, leftKey, rightKey);
+        return probe(left, matches, leftKey, combiner, true);
+    }
+
+    /**
+     * Parallel version of Lists.semiJoin, the set of keys is built in the calling thread and the left collection is
+     * filtered in parallel
+     *
+     * @param left     -
+     * @param right    -
+     * @param leftKey  returns the key of an element of the left collection
+     * @param rightKey returns the key of an element of the right collection
+     * @param <A>      The type of the elements of the left collection
+     * @param <B>      The type of the elements of the right collection
+     * @param <K>      The type of the keys
+     * @return a list with the matching left elements in their original order
+     */
+    public <A, B, K> List<A> semiJoin(Collection<A> left, Collection<B> right, Func1<A, K> leftKey,
+                                      Func1<B, K> rightKey) {
+        if (isSmall(left) || right == null || right.isEmpty()) return Lists.semiJoin(left, right, leftKey, rightKey);
+
+        return filter(left, keyIn(Lists.joinKeys(left, right, leftKey, rightKey), leftKey, true));
+    }
+
+    /**
+     * Parallel version of Lists.antiJoin, the set of keys is built in the calling thread and the left collection is
+     * filtered in parallel
+     *
+     * @param left     -
+     * @param right    -
+     * @param leftKey  returns the key of an element of the left collection
+     * @param rightKey returns the key of an element of the right collection
+     * @param <A>      The type of the elements of the left collection
+     * @param <B>      The type of the elements of the right collection
+     * @param <K>      The type of the keys
+     * @return a list with the left elements without a match in their original order
+     */
+    public <A, B, K> List<A> antiJoin(Collection<A> left, Collection<B> right, Func1<A, K> leftKey,
+                                      Func1<B, K> rightKey) {
+        if (isSmall(left) || right == null || right.isEmpty()) return Lists.antiJoin(left, right, leftKey, rightKey);
+
+        return filter(left, keyIn(Lists.joinKeys(left, right, leftKey, rightKey), leftKey, false));
+    }
+
+    /**
+     * Parallel version of Lists.sortBy, the keys are computed in parallel and the elements are sorted with a merge sort
+     * whose halves are sorted in parallel. It is stable like Lists.sortBy.
+     *
+     * @param originalList -
+     * @param keyFunction  returns the key of an element, it must not return null
+     * @param <A>          The type of the elements of the original list
+     * @param <K>          The type of the keys
+     * @return a new list with the elements sorted by their keys
+     */
+    public <A, K extends Comparable<? super K>> List<A> sortBy(Collection<A> originalList, Func1<A, K> keyFunction) {
+        return sortBy(originalList, keyFunction, Sorting.<K>naturalOrder());
+    }
+
+    /**
+     * Parallel version of Lists.sortBy with a comparator of the keys
+     *
+     * @param originalList -
+     * @param keyFunction  returns the key of an element
+     * @param comparator   compares the keys
+     * @param <A>          The type of the elements of the original list
+     * @param <K>          The type of the keys
+     * @return a new list with the elements sorted by their keys
+     */
+    public <A, K> List<A> sortBy(Collection<A> originalList, final Func1<A, K> keyFunction,
+                                 Comparator<? super K> comparator) {
+        if (isSmall(originalList)) return Lists.sortBy(originalList, keyFunction, comparator);
+
+        final List<A> elements = randomAccess(originalList);
+        @SuppressWarnings("unchecked")
+        final Sorting.Keyed<K>[] keyed = (Sorting.Keyed<K>[]) new Sorting.Keyed<?>[elements.size()];
+
+        invoke(new RangeAction(0, elements.size(), threshold) {
+            @Override
+            long computeRange(int from, int to) {
+                for (int i = from; i < to; i++) {
+                    A element = elements.get(i);
+                    keyed[i] = new Sorting.Keyed<>(keyFunction.call(element), element);
+                }
+                return 0;
+            }
+        });
+
+        Sorting.parallelSort(pool, keyed, Sorting.Keyed.<K>byKey(comparator), threshold);
+        return Sorting.elementsOf(keyed);
+    }
+
+    /**
+     * Parallel version of Lists.sortByInt, the keys are computed in parallel and then radix sorted in the calling
+     * thread, which is already O(n). It pays off when the key function is expensive.
+     *
+     * @param originalList -
+     * @param keyFunction  returns the key of an element
+     * @param <A>          The type of the elements of the original list
+     * @return a new list with the elements sorted by their keys, from the smallest to the biggest
+     */
+    public <A> List<A> sortByInt(Collection<A> originalList, final IntFunc1<A> keyFunction) {
+        if (isSmall(originalList)) return Lists.sortByInt(originalList, keyFunction);
+
+        final List<A> elements = randomAccess(originalList);
+        final int[] keys = new int[elements.size()];
+
+        invoke(new RangeAction(0, elements.size(), threshold) {
+            @Override
+            long computeRange(int from, int to) {
+                for (int i = from; i < to; i++) {
+                    keys[i] = keyFunction.call(elements.get(i));
+                }
+                return 0;
+            }
+        });
+
+        return Sorting.toList(Sorting.byIntKeys(keys, elements.toArray()));
+    }
+
+    /**
+     * Parallel version of Lists.sortByLong, the keys are computed in parallel and then radix sorted in the calling
+     * thread
+     *
+     * @param originalList -
+     * @param keyFunction  returns the key of an element
+     * @param <A>          The type of the elements of the original list
+     * @return a new list with the elements sorted by their keys, from the smallest to the biggest
+     */
+    public <A> List<A> sortByLong(Collection<A> originalList, final LongFunc1<A> keyFunction) {
+        if (isSmall(originalList)) return Lists.sortByLong(originalList, keyFunction);
+
+        final List<A> elements = randomAccess(originalList);
+        final long[] keys = new long[elements.size()];
+
+        invoke(new RangeAction(0, elements.size(), threshold) {
+            @Override
+            long computeRange(int from, int to) {
+                for (int i = from; i < to; i++) {
+                    keys[i] = keyFunction.call(elements.get(i));
+                }
+                return 0;
+            }
+        });
+
+        return Sorting.toList(Sorting.byLongKeys(keys, elements.toArray()));
+    }
+
+    /**
+     * Returns the index of a matching element, or the size of the list if there is none. When first is true it is the
+     * lowest matching index, the ranges skip the elements after the best match found so far. When it is false any
+     * match is returned and every range stops as soon as there is one.
+     */
+    private <A> int search(final List<A> elements, final Func1<A, Boolean> predicate, final boolean first) {
+        final int size = elements.size();
+        final AtomicInteger bestIndex = new AtomicInteger(size);
+
+        invoke(new RangeAction(0, size, threshold) {
+            @Override
+            boolean isCancelled(int from) {
+                return first ? from >= bestIndex.get() : bestIndex.get() != size;
+            }
+
+            @Override
+            long computeRange(int from, int to) {
+                for (int i = from; i < to && !isCancelled(i); i++) {
+                    if (predicate.call(elements.get(i))) {
+                        lowerTo(bestIndex, i);
+                        return 0;
+                    }
+                }
+                return 0;
+            }
+        });
+
+        return bestIndex.get();
+    }
+
+    /**
+     * Looks up the matches of each left element in parallel and concatenates them in the order of the left elements,
+     * the table is only read so it can be shared by all the ranges
+     */
+    private <A, B, K, C> List<C> probe(Collection<A> left, final Map<K, List<B>> matches, final Func1<A, K> leftKey,
+                                       final Func2<A, B, C> combiner, final boolean keepUnmatched) {
+        List<List<C>> joinedElements = map(left, new Func1<A, List<C>>() {
+            @Override
+            public List<C> call(A element) {
+                List<B> elementMatches = matches.get(leftKey.call(element));
+                if (elementMatches == null || elementMatches.isEmpty()) {
+                    return keepUnmatched
+                            ? Collections.singletonList(combiner.call(element, null))
+                            : Collections.<C>emptyList();
+                }
+
+                List<C> joined = new ArrayList<>(elementMatches.size());
+                for (B match : elementMatches) {
+                    joined.add(combiner.call(element, match));
+                }
+                return joined;
+            }
+        });
+
+        int size = 0;
+        for (List<C> joined : joinedElements) {
+            size += joined.size();
+        }
+
+        ArrayList<C> joinedList = new ArrayList<>(size);
+        for (List<C> joined : joinedElements) {
+            joinedList.addAll(joined);
+        }
+        return joinedList;
+    }
+
+    private static <A, K> Func1<A, Boolean> keyIn(final Set<K> keys, final Func1<A, K> keyFunction,
+                                                  final boolean contained) {
+        return new Func1<A, Boolean>() {
+            @Override
+            public Boolean call(A element) {
+                return keys.contains(keyFunction.call(element)) == contained;
+            }
+        };
+    }
+
+    private long invoke(RangeAction action) {
+        pool.invoke(action);
+        return action.result;
+    }
+
+    private static void lowerTo(AtomicInteger value, int candidate) {
+        int current = value.get();
+        while (candidate < current && !value.compareAndSet(current, candidate)) {
+            current = value.get();
+        }
+    }
+
+    private boolean isSmall(Collection<?> originalList) {
+        return originalList == null || originalList.size() <= threshold;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <A> List<A> randomAccess(Collection<A> originalList) {
+        if (originalList instanceof List && originalList instanceof RandomAccess) return (List<A>) originalList;
+        return (List<A>) Arrays.asList(originalList.toArray());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <B> List<B> toList(Object[] results, int size) {
+        ArrayList<B> resultList = new ArrayList<>(size);
+        Collections.addAll(resultList, (B[]) results);
+        return resultList;
+    }
+
+    private static <B> List<B> compact(Object[] results, int size) {
+        Object[] compacted = new Object[size];
+        int position = 0;
+        for (Object result : results) {
+            if (result != null) compacted[position++] = result;
+        }
+        return toList(compacted, size);
+    }
+
+    /**
+     * Splits the range in halves until it is smaller than the threshold, the result of each range is added to the
+     * results of the other ranges
+     */
+    abstract static class RangeAction extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final int threshold;
+        private RangeAction parent;
+        private long result;
+
+        RangeAction(int from, int to, int threshold) {
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        abstract long computeRange(int from, int to);
+
+        /**
+         * Returns true if the range starting at the given index does not need to be processed
+         */
+        boolean isCancelled(int from) {
+            return false;
+        }
+
+        @Override
+        protected final void compute() {
+            RangeAction root = parent == null ? this : parent;
+
+            if (root.isCancelled(from)) return;
+
+            if (to - from <= threshold) {
+                result = root.computeRange(from, to);
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            RangeAction left = root.subRange(from, middle);
+            RangeAction right = root.subRange(middle, to);
+            invokeAll(left, right);
+            result = left.result + right.result;
+        }
+
+        private RangeAction subRange(final int from, final int to) {
+            RangeAction subRange = new RangeAction(from, to, threshold) {
+                @Override
+                long computeRange(int from, int to) {
+                    throw new AssertionError("Sub ranges delegate to their root");
+                }
+            };
+            subRange.parent = this;
+            return subRange;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.danieldisu;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+/**
+ * Read only view of some elements followed by a list, created by Lists.unshiftView. The prepended elements are kept
+ * in reverse order in a buffer that grows at the end, and prepending to the last view created from a buffer adds to
+ * the same buffer, so prepending in a loop is amortized O(1) per element instead of copying the whole list each time.
+ * The views created before keep seeing only their own elements. The list must not change its size while the view is
+ * used.
+ *
+ * @param <A> The type of the elements
+ */
+class PrependedList<A> extends AbstractList<A> {
+
+    /**
+     * Prepended elements shared by several views, the first element of a view is at index headSize - 1
+     */
+    private static final class Head {
+        Object[] elements;
+        int size;
+
+        Head(int capacity) {
+            elements = new Object[Math.max(capacity, 8)];
+        }
+    }
+
+    private final Head head;
+    private final int headSize;
+    private final List<A> tail;
+
+    private PrependedList(Head head, int headSize, List<A> tail) {
+        this.head = head;
+        this.headSize = headSize;
+        this.tail = tail;
+    }
+
+    /**
+     * Creates a view of the elements followed by the list, reusing the buffer of the list if it is a PrependedList
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    static <A> PrependedList<A> create(List<A> list, A... elements) {
+        if (list instanceof PrependedList) return ((PrependedList<A>) list).prepend(elements);
+
+        Head head = new Head(elements.length);
+        push(head, elements);
+        return create(head, elements.length, list);
+    }
+
+    private static <A> PrependedList<A> create(Head head, int headSize, List<A> tail) {
+        return tail instanceof RandomAccess
+                ? new RandomAccessPrependedList<>(head, headSize, tail)
+                : new PrependedList<>(head, headSize, tail);
+    }
+
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    private final PrependedList<A> prepend(A... elements) {
+        synchronized (head) {
+            // if no view was created from this one, the elements after headSize are free to use
+            if (head.size == headSize) {
+                push(head, elements);
+                return create(head, head.size, tail);
+            }
+        }
+
+        Head copy = new Head(2 * (headSize + elements.length));
+        System.arraycopy(head.elements, 0, copy.elements, 0, headSize);
+        copy.size = headSize;
+        push(copy, elements);
+        return create(copy, copy.size, tail);
+    }
+
+    /**
+     * Adds the elements to the end of the buffer in reverse order, so the first one is the last one of the buffer
+     */
+    private static void push(Head head, Object[] elements) {
+        int newSize = head.size + elements.length;
+        if (newSize > head.elements.length) {
+            head.elements = Arrays.copyOf(head.elements, Math.max(newSize, 2 * head.elements.length));
+        }
+
+        for (int i = elements.length - 1; i >= 0; i--) {
+            head.elements[head.size++] = elements[i];
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public A get(int index) {
+        if (index < 0 || index >= size()) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+
+        if (index < headSize) return (A) head.elements[headSize - 1 - index];
+        return tail.get(index - headSize);
+    }
+
+    @Override
+    public int size() {
+        return headSize + tail.size();
+    }
+
+    @Override
+    public Iterator<A> iterator() {
+        final Object[] elements = head.elements;
+
+        return new Iterator<A>() {
+            private int headIndex = headSize - 1;
+            private Iterator<A> tailIterator;
+
+            @Override
+            public boolean hasNext() {
+                if (headIndex >= 0) return true;
+                if (tailIterator == null) tailIterator = tail.iterator();
+                return tailIterator.hasNext();
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public A next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                if (headIndex >= 0) return (A) elements[headIndex--];
+                return tailIterator.next();
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    private static final class RandomAccessPrependedList<A> extends PrependedList<A> implements RandomAccess {
+
+        RandomAccessPrependedList(Head head, int headSize, List<A> tail) {
+            super(head, headSize, tail);
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package com.danieldisu;
+
+import com.danieldisu.functions.IntFunc1;
+import com.danieldisu.functions.LongFunc1;
+import com.danieldisu.functions.Predicate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import rx.Observable;
+import rx.Scheduler;
+import rx.functions.Action2;
+import rx.functions.Func0;
+import rx.functions.Func1;
+
+/**
+ * Transformers that apply the Lists operations to the elements of an Observable, to be used with
+ * observable.compose(...). Unless the documentation of a method says otherwise they respect backpressure, they only
+ * request from upstream what downstream has requested.
+ */
+public final class RxLists {
+
+    private static final Func1<int[], Integer> INT_HOLDER_VALUE = new Func1<int[], Integer>() {
+        @Override
+        public Integer call(int[] holder) {
+            return holder[0];
+        }
+    };
+
+    private RxLists() {
+    }
+
+    /**
+     * Groups the elements in batches of the given size and applies Lists.map to each batch, the results are emitted
+     * one by one in the original order
+     *
+     * @param functionToApply -
+     * @param batchSize       the number of elements mapped together
+     * @param <A>             The type of the elements of the original observable
+     * @param <B>             The type of the elements of the returned observable
+     * @return the transformer
+     */
+    public static <A, B> Observable.Transformer<A, B> mapBatched(final Func1<A, B> functionToApply, final int batchSize) {
+        return new Observable.Transformer<A, B>() {
+            @Override
+            public Observable<B> call(Observable<A> source) {
+                return source.buffer(batchSize).concatMapIterable(mapBatch(functionToApply));
+            }
+        };
+    }
+
+    /**
+     * Same as mapBatched but a batch is also closed when the time window ends, so the elements of a slow source do not
+     * wait until the batch is full. Time based batches are emitted when the window ends and do not respect backpressure,
+     * so up to maxPendingBatches batches are buffered while downstream is slow, and a MissingBackpressureException is
+     * emitted if there are more.
+     *
+     * @param functionToApply   -
+     * @param batchSize         the maximum number of elements mapped together
+     * @param timeWindow        the maximum time an element waits for its batch to be mapped
+     * @param unit              the unit of the time window
+     * @param scheduler         the scheduler of the time window
+     * @param maxPendingBatches the number of batches buffered while downstream is slow
+     * @param <A>               The type of the elements of the original observable
+     * @param <B>               The type of the elements of the returned observable
+     * @return the transformer
+     */
+    public static <A, B> Observable.Transformer<A, B> mapBatched(final Func1<A, B> functionToApply, final int batchSize,
+                                                                 final long timeWindow, final TimeUnit unit,
+                                                                 final Scheduler scheduler, final long maxPendingBatches) {
+        return new Observable.Transformer<A, B>() {
+            @Override
+            public Observable<B> call(Observable<A> source) {
+                return source.buffer(timeWindow, unit, batchSize, scheduler)
+                        .onBackpressureBuffer(maxPendingBatches)
+                        .concatMapIterable(mapBatch(functionToApply));
+            }
+        };
+    }
+
+    /**
+     * Applies the function to up to maxConcurrency elements at the same time in the given scheduler, for slow
+     * functions like I/O lookups. The results are emitted in the original order.
+     *
+     * @param functionToApply -
+     * @param maxConcurrency  the maximum number of calls to the function running at the same time
+     * @param scheduler       the scheduler where the function is called
+     * @param <A>             The type of the elements of the original observable
+     * @param <B>             The type of the elements of the returned observable
+     * @return the transformer
+     */
+    public static <A, B> Observable.Transformer<A, B> mapConcurrent(final Func1<A, B> functionToApply,
+                                                                    final int maxConcurrency, final Scheduler scheduler) {
+        return new Observable.Transformer<A, B>() {
+            @Override
+            public Observable<B> call(Observable<A> source) {
+                return source.concatMapEager(callOn(functionToApply, scheduler), maxConcurrency, maxConcurrency);
+            }
+        };
+    }
+
+    /**
+     * Same as mapConcurrent but the results are emitted as soon as they are ready, so a slow element does not hold back
+     * the results of the elements after it
+     *
+     * @param functionToApply -
+     * @param maxConcurrency  the maximum number of calls to the function running at the same time
+     * @param scheduler       the scheduler where the function is called
+     * @param <A>             The type of the elements of the original observable
+     * @param <B>             The type of the elements of the returned observable
+     * @return the transformer
+     */
+    public static <A, B> Observable.Transformer<A, B> mapConcurrentUnordered(final Func1<A, B> functionToApply,
+                                                                             final int maxConcurrency,
+                                                                             final Scheduler scheduler) {
+        return new Observable.Transformer<A, B>() {
+            @Override
+            public Observable<B> call(Observable<A> source) {
+                return source.flatMap(callOn(functionToApply, scheduler), maxConcurrency);
+            }
+        };
+    }
+
+    /**
+     * Streaming version of Lists.flatMapUnique, emits each element of the returned collections the first time it is
+     * seen. The seen elements are kept until the observable ends.
+     *
+     * @param functionToApply -
+     * @param <A>             The type of the elements of the original observable
+     * @param <B>             The type of the elements of the returned observable
+     * @return the transformer
+     */
+    public static <A, B> Observable.Transformer<A, B> flatMapUnique(final Func1<A, Collection<B>> functionToApply) {
+        return new Observable.Transformer<A, B>() {
+            @Override
+            public Observable<B> call(Observable<A> source) {
+                return source.concatMapIterable(functionToApply).distinct();
+            }
+        };
+    }
+
+    /**
+     * Streaming version of Lists.distinct, the seen elements are kept until the observable ends
+     *
+     * @param <A> The type of the elements
+     * @return the transformer
+     */
+    public static <A> Observable.Transformer<A, A> distinct() {
+        return new Observable.Transformer<A, A>() {
+            @Override
+            public Observable<A> call(Observable<A> source) {
+                return source.distinct();
+            }
+        };
+    }
+
+    /**
+     * Streaming version of Lists.distinctBy, the seen keys are kept until the observable ends
+     *
+     * @param keyFunction returns the key used to compare the elements
+     * @param <A>         The type of the elements
+     * @param <K>         The type of the keys
+     * @return the transformer
+     */
+    public static <A, K> Observable.Transformer<A, A> distinctBy(final Func1<A, K> keyFunction) {
+        return new Observable.Transformer<A, A>() {
+            @Override
+            public Observable<A> call(Observable<A> source) {
+                return source.distinct(keyFunction);
+            }
+        };
+    }
+
+    /**
+     * Streaming version of Lists.countWhere, emits the count when the observable completes
+     *
+     * @param predicate -
+     * @param <A>       The type of the elements
+     * @return the transformer
+     */
+    public static <A> Observable.Transformer<A, Integer> countWhere(final Predicate<A> predicate) {
+        return new Observable.Transformer<A, Integer>() {
+            @Override
+            public Observable<Integer> call(Observable<A> source) {
+                return source.collect(newIntHolder(0), new Action2<int[], A>() {
+                    @Override
+                    public void call(int[] count, A element) {
+                        if (predicate.call(element)) count[0]++;
+                    }
+                }).map(INT_HOLDER_VALUE);
+            }
+        };
+    }
+
+    /**
+     * Streaming version of Lists.sumOfInt, emits the sum when the observable completes
+     *
+     * @param func -
+     * @param <A>  The type of the elements
+     * @return the transformer
+     */
+    public static <A> Observable.Transformer<A, Integer> sumOfInt(final IntFunc1<A> func) {
+        return new Observable.Transformer<A, Integer>() {
+            @Override
+            public Observable<Integer> call(Observable<A> source) {
+                return source.collect(newIntHolder(0), new Action2<int[], A>() {
+                    @Override
+                    public void call(int[] total, A element) {
+                        total[0] += func.call(element);
+                    }
+                }).map(INT_HOLDER_VALUE);
+            }
+        };
+    }
+
+    /**
+     * Streaming version of Lists.sumOfLong, emits the sum when the observable completes
+     *
+     * @param func -
+     * @param <A>  The type of the elements
+     * @return the transformer
+     */
+    public static <A> Observable.Transformer<A, Long> sumOfLong(final LongFunc1<A> func) {
+        return new Observable.Transformer<A, Long>() {
+            @Override
+            public Observable<Long> call(Observable<A> source) {
+                return source.collect(new Func0<long[]>() {
+                    @Override
+                    public long[] call() {
+                        return new long[1];
+                    }
+                }, new Action2<long[], A>() {
+                    @Override
+                    public void call(long[] total, A element) {
+                        total[0] += func.call(element);
+                    }
+                }).map(new Func1<long[], Long>() {
+                    @Override
+                    public Long call(long[] total) {
+                        return total[0];
+                    }
+                });
+            }
+        };
+    }
+
+    /**
+     * Streaming version of Lists.minOfInt, emits the minimum when the observable completes, 0 if it was empty
+     *
+     * @param func -
+     * @param <A>  The type of the elements
+     * @return the transformer
+     */
+    public static <A> Observable.Transformer<A, Integer> minOfInt(final IntFunc1<A> func) {
+        return extremeOfInt(func, true);
+    }
+
+    /**
+     * Streaming version of Lists.maxOfInt, emits the maximum when the observable completes, 0 if it was empty
+     *
+     * @param func -
+     * @param <A>  The type of the elements
+     * @return the transformer
+     */
+    public static <A> Observable.Transformer<A, Integer> maxOfInt(final IntFunc1<A> func) {
+        return extremeOfInt(func, false);
+    }
+
+    private static <A> Observable.Transformer<A, Integer> extremeOfInt(final IntFunc1<A> func, final boolean min) {
+        return new Observable.Transformer<A, Integer>() {
+            @Override
+            public Observable<Integer> call(Observable<A> source) {
+                // the second position counts the elements, so an empty observable emits 0 like Lists does
+                return source.collect(new Func0<int[]>() {
+                    @Override
+                    public int[] call() {
+                        return new int[]{min ? Integer.MAX_VALUE : Integer.MIN_VALUE, 0};
+                    }
+                }, new Action2<int[], A>() {
+                    @Override
+                    public void call(int[] extreme, A element) {
+                        int value = func.call(element);
+                        if (min ? value < extreme[0] : value > extreme[0]) extreme[0] = value;
+                        extreme[1] = 1;
+                    }
+                }).map(new Func1<int[], Integer>() {
+                    @Override
+                    public Integer call(int[] extreme) {
+                        return extreme[1] == 0 ? 0 : extreme[0];
+                    }
+                });
+            }
+        };
+    }
+
+    private static Func0<int[]> newIntHolder(final int initialValue) {
+        return new Func0<int[]>() {
+            @Override
+            public int[] call() {
+                return new int[]{initialValue};
+            }
+        };
+    }
+
+    private static <A, B> Func1<List<A>, Iterable<B>> mapBatch(final Func1<A, B> functionToApply) {
+        return new Func1<List<A>, Iterable<B>>() {
+            @Override
+            public Iterable<B> call(List<A> batch) {
+                return Lists.map(batch, functionToApply);
+            }
+        };
+    }
+
+    private static <A, B> Func1<A, Observable<B>> callOn(final Func1<A, B> functionToApply, final Scheduler scheduler) {
+        return new Func1<A, Observable<B>>() {
+            @Override
+            public Observable<B> call(final A element) {
+                return Observable.defer(new Func0<Observable<B>>() {
+                    @Override
+                    public Observable<B> call() {
+                        return Observable.just(functionToApply.call(element));
+                    }
+                }).subscribeOn(scheduler);
+            }
+        };
+    }
+}
@@ -0,0 +1,585 @@
+package com.danieldisu;
+
+import com.danieldisu.functions.IntFunc1;
+import com.danieldisu.functions.LongFunc1;
+import com.danieldisu.functions.Predicate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import rx.functions.Action1;
+import rx.functions.Func1;
+import rx.functions.Func2;
+
+/**
+ * A lazy version of the Lists operations. The intermediate operations (map, filter, flatMap...) do not do anything
+ * until a terminal operation (toList, find, any, count...) is called, then all of them are applied to each element
+ * in a single pass without creating intermediate lists, and operations like find or any stop as soon as they have a
+ * result.
+ * <p>
+ * A sequence can be traversed more than once as long as its source can be, each traversal applies the operations
+ * again.
+ *
+ * @param <A> The type of the elements of the sequence
+ */
+public abstract class Sequence<A> implements Iterable<A> {
+
+    /**
+     * Returns a sequence over the elements of the given iterable, a null iterable is treated as an empty one
+     *
+     * @param source -
+     * @param <A>    The type of the elements
+     * @return the sequence
+     */
+    public static <A> Sequence<A> from(@Nullable final Iterable<A> source) {
+        if (source == null) return empty();
+
+        return new Sequence<A>() {
+            @Override
+            public Iterator<A> iterator() {
+                return source.iterator();
+            }
+        };
+    }
+
+    /**
+     * Returns a sequence over the remaining elements of the given iterator, used to process sources that do not fit in
+     * memory (records read from a file, a database cursor...). The elements are pulled from the iterator only when a
+     * terminal operation needs them, so the sequence can only be traversed once.
+     *
+     * @param source -
+     * @param <A>    The type of the elements
+     * @return the sequence
+     */
+    public static <A> Sequence<A> from(@Nullable final Iterator<A> source) {
+        if (source == null) return empty();
+
+        return new Sequence<A>() {
+            private boolean traversed;
+
+            @Override
+            public Iterator<A> iterator() {
+                if (traversed) throw new IllegalStateException("A sequence created from an iterator can only be traversed once");
+                traversed = true;
+                return source;
+            }
+        };
+    }
+
+    /**
+     * Returns a sequence containing the given elements
+     *
+     * @param elements -
+     * @param <A>      The type of the elements
+     * @return the sequence
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    public static <A> Sequence<A> of(A... elements) {
+        return from(Lists.of(elements));
+    }
+
+    /**
+     * Returns a sequence without elements
+     *
+     * @param <A> The type of the elements
+     * @return the sequence
+     */
+    public static <A> Sequence<A> empty() {
+        return new Sequence<A>() {
+            @Override
+            public Iterator<A> iterator() {
+                return Collections.<A>emptyList().iterator();
+            }
+        };
+    }
+
+    /**
+     * Lazy version of Lists.map
+     *
+     * @param functionToApply -
+     * @param <B>             The type of the elements of the returned sequence
+     * @return a sequence with the results of the function
+     */
+    public <B> Sequence<B> map(final Func1<A, B> functionToApply) {
+        final Sequence<A> upstream = this;
+
+        return new Sequence<B>() {
+            @Override
+            public Iterator<B> iterator() {
+                final Iterator<A> source = upstream.iterator();
+
+                return new Iterator<B>() {
+                    @Override
+                    public boolean hasNext() {
+                        return source.hasNext();
+                    }
+
+                    @Override
+                    public B next() {
+                        return functionToApply.call(source.next());
+                    }
+
+                    @Override
+                    public void remove() {
+                        throw new UnsupportedOperationException();
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Lazy version of Lists.filter
+     *
+     * @param predicate a func that returns true if the element should be in the returning sequence
+     * @return a sequence with the elements that the result of the predicate was true
+     */
+    public Sequence<A> filter(final Func1<A, Boolean> predicate) {
+        final Sequence<A> upstream = this;
+
+        return new Sequence<A>() {
+            @Override
+            public Iterator<A> iterator() {
+                final Iterator<A> source = upstream.iterator();
+
+                return new LazyIterator<A>() {
+                    @Override
+                    protected A computeNext() {
+                        while (source.hasNext()) {
+                            A element = source.next();
+                            if (predicate.call(element)) return element;
+                        }
+                        return done();
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Lazy version of Lists.filteredMap, the null results of the function are skipped
+     *
+     * @param functionToApply -
+     * @param <B>             The type of the elements of the returned sequence
+     * @return a sequence with the non null results of the function
+     */
+    public <B> Sequence<B> filteredMap(final Func1<A, B> functionToApply) {
+        final Sequence<A> upstream = this;
+
+        return new Sequence<B>() {
+            @Override
+            public Iterator<B> iterator() {
+                final Iterator<A> source = upstream.iterator();
+
+                return new LazyIterator<B>() {
+                    @Override
+                    protected B computeNext() {
+                        while (source.hasNext()) {
+                            B result = functionToApply.call(source.next());
+                            if (result != null) return result;
+                        }
+                        return done();
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Lazy version of Lists.flatMap, the iterables returned by the function are traversed one after the other
+     *
+     * @param functionToApply -
+     * @param <B>             The type of the elements of the returned sequence
+     * @return a sequence with the elements of all the returned iterables
+     */
+    public <B> Sequence<B> flatMap(final Func1<A, ? extends Iterable<B>> functionToApply) {
+        final Sequence<A> upstream = this;
+
+        return new Sequence<B>() {
+            @Override
+            public Iterator<B> iterator() {
+                final Iterator<A> source = upstream.iterator();
+
+                return new LazyIterator<B>() {
+                    private Iterator<B> current = Collections.<B>emptyList().iterator();
+
+                    @Override
+                    protected B computeNext() {
+                        while (!current.hasNext()) {
+                            if (!source.hasNext()) return done();
+                            Iterable<B> result = functionToApply.call(source.next());
+                            if (result != null) current = result.iterator();
+                        }
+                        return current.next();
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Lazy version of Lists.distinct, keeps the first occurrence of each element
+     *
+     * @return a sequence without duplicates
+     */
+    public Sequence<A> distinct() {
+        return distinctBy(new Func1<A, A>() {
+            @Override
+            public A call(A element) {
+                return element;
+            }
+        });
+    }
+
+    /**
+     * Lazy version of Lists.distinctBy, keeps the first element of each key
+     *
+     * @param keyFunction returns the key used to compare the elements
+     * @param <K>         The type of the keys
+     * @return a sequence with the first element of each key
+     */
+    public <K> Sequence<A> distinctBy(final Func1<A, K> keyFunction) {
+        final Sequence<A> upstream = this;
+
+        return new Sequence<A>() {
+            @Override
+            public Iterator<A> iterator() {
+                final Iterator<A> source = upstream.iterator();
+                final HashSet<K> seenKeys = new HashSet<>();
+
+                return new LazyIterator<A>() {
+                    @Override
+                    protected A computeNext() {
+                        while (source.hasNext()) {
+                            A element = source.next();
+                            if (seenKeys.add(keyFunction.call(element))) return element;
+                        }
+                        return done();
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Returns a sequence with, at most, the first given number of elements
+     *
+     * @param maxElements -
+     * @return the sequence
+     */
+    public Sequence<A> limit(final int maxElements) {
+        if (maxElements < 0) throw new IllegalArgumentException("maxElements must not be negative: " + maxElements);
+
+        final Sequence<A> upstream = this;
+
+        return new Sequence<A>() {
+            @Override
+            public Iterator<A> iterator() {
+                final Iterator<A> source = upstream.iterator();
+
+                return new LazyIterator<A>() {
+                    private int remaining = maxElements;
+
+                    @Override
+                    protected A computeNext() {
+                        if (remaining == 0 || !source.hasNext()) return done();
+                        remaining--;
+                        return source.next();
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Groups the elements in consecutive lists of the given size, the last list has the remaining elements and may be
+     * smaller. Only one chunk is held in memory at a time, each chunk is a new list so it can be kept by the caller.
+     *
+     * @param size the number of elements of each chunk
+     * @return a sequence of chunks
+     */
+    public Sequence<List<A>> chunk(final int size) {
+        if (size < 1) throw new IllegalArgumentException("size must be positive: " + size);
+
+        final Sequence<A> upstream = this;
+
+        return new Sequence<List<A>>() {
+            @Override
+            public Iterator<List<A>> iterator() {
+                final Iterator<A> source = upstream.iterator();
+
+                return new LazyIterator<List<A>>() {
+                    @Override
+                    protected List<A> computeNext() {
+                        if (!source.hasNext()) return done();
+
+                        List<A> chunk = new ArrayList<>(size);
+                        while (chunk.size() < size && source.hasNext()) {
+                            chunk.add(source.next());
+                        }
+                        return chunk;
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Returns the sliding windows of the given size, moving one element each time: [1, 2, 3, 4] with size 2 returns
+     * [1, 2], [2, 3], [3, 4]. Only full windows are returned, so a sequence with fewer elements than the size returns
+     * none. Only the last window is held in memory, each window is a new list so it can be kept by the caller.
+     *
+     * @param size the number of elements of each window
+     * @return a sequence of windows
+     */
+    public Sequence<List<A>> window(int size) {
+        return window(size, 1);
+    }
+
+    /**
+     * Returns the windows of the given size, starting a new window every step elements. Only full windows are returned.
+     * When the step is bigger than the size the elements between windows are skipped.
+     *
+     * @param size the number of elements of each window
+     * @param step the number of elements between the start of two windows
+     * @return a sequence of windows
+     */
+    public Sequence<List<A>> window(final int size, final int step) {
+        if (size < 1) throw new IllegalArgumentException("size must be positive: " + size);
+        if (step < 1) throw new IllegalArgumentException("step must be positive: " + step);
+
+        final Sequence<A> upstream = this;
+
+        return new Sequence<List<A>>() {
+            @Override
+            public Iterator<List<A>> iterator() {
+                final Iterator<A> source = upstream.iterator();
+
+                return new LazyIterator<List<A>>() {
+                    private List<A> previous;
+
+                    @Override
+                    protected List<A> computeNext() {
+                        List<A> window = new ArrayList<>(size);
+
+                        if (previous != null && step < size) {
+                            window.addAll(previous.subList(step, size));
+                        } else if (previous != null) {
+                            for (int skipped = size; skipped < step; skipped++) {
+                                if (!source.hasNext()) return done();
+                                source.next();
+                            }
+                        }
+
+                        while (window.size() < size && source.hasNext()) {
+                            window.add(source.next());
+                        }
+
+                        if (window.size() < size) return done();
+
+                        previous = window;
+                        return window;
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * @param predicate -
+     * @return Returns the first element that fulfill the predicate, or null
+     */
+    @Nullable
+    public A find(Func1<A, Boolean> predicate) {
+        for (A element : this) {
+            if (predicate.call(element)) return element;
+        }
+
+        return null;
+    }
+
+    /**
+     * Apply the given function to each element and returns the first result that is not null
+     *
+     * @param functionToApply -
+     * @param <B>             The type of the result
+     * @return Returns an element of B or null
+     */
+    @Nullable
+    public <B> B findMap(Func1<A, B> functionToApply) {
+        for (A element : this) {
+            B result = functionToApply.call(element);
+            if (result != null) return result;
+        }
+
+        return null;
+    }
+
+    /**
+     * @return Returns the first element of the sequence, or null if it is empty
+     */
+    @Nullable
+    public A first() {
+        Iterator<A> iterator = iterator();
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
+    /**
+     * @param predicate -
+     * @return Returns true if any element matches the predicate
+     */
+    public boolean any(Func1<A, Boolean> predicate) {
+        for (A element : this) {
+            if (predicate.call(element)) return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Same as Lists.all, an empty sequence returns false
+     *
+     * @param predicate -
+     * @return Returns true if ALL element matches the predicate
+     */
+    public boolean all(Func1<A, Boolean> predicate) {
+        Iterator<A> iterator = iterator();
+
+        if (!iterator.hasNext()) return false;
+
+        while (iterator.hasNext()) {
+            if (!predicate.call(iterator.next())) return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * @return the number of elements of the sequence
+     */
+    public int count() {
+        int count = 0;
+
+        for (Iterator<A> iterator = iterator(); iterator.hasNext(); iterator.next()) {
+            count++;
+        }
+
+        return count;
+    }
+
+    /**
+     * @param predicate -
+     * @return the number of elements that matches the predicate
+     */
+    public int count(Func1<A, Boolean> predicate) {
+        int count = 0;
+
+        for (A element : this) {
+            if (predicate.call(element)) count++;
+        }
+
+        return count;
+    }
+
+    /**
+     * Same as count but the predicate returns a primitive boolean, so no Boolean is boxed or unboxed per element
+     *
+     * @param predicate -
+     * @return the number of elements that matches the predicate
+     */
+    public int countWhere(Predicate<A> predicate) {
+        int count = 0;
+
+        for (A element : this) {
+            if (predicate.call(element)) count++;
+        }
+
+        return count;
+    }
+
+    /**
+     * @param func -
+     * @return the sum of the values returned by the function
+     */
+    public int sumOfInt(IntFunc1<A> func) {
+        int total = 0;
+
+        for (A element : this) {
+            total += func.call(element);
+        }
+
+        return total;
+    }
+
+    /**
+     * @param func -
+     * @return the sum of the values returned by the function
+     */
+    public long sumOfLong(LongFunc1<A> func) {
+        long total = 0;
+
+        for (A element : this) {
+            total += func.call(element);
+        }
+
+        return total;
+    }
+
+    /**
+     * Combines all the elements into one value, starting with the initial value
+     *
+     * @param initialValue -
+     * @param accumulator  receives the value accumulated so far and an element, returns the new value
+     * @param <B>          The type of the result
+     * @return the accumulated value
+     */
+    public <B> B reduce(B initialValue, Func2<B, A, B> accumulator) {
+        B result = initialValue;
+
+        for (A element : this) {
+            result = accumulator.call(result, element);
+        }
+
+        return result;
+    }
+
+    /**
+     * Apply the given function to every element of the sequence
+     *
+     * @param functionToApply -
+     */
+    public void each(Action1<A> functionToApply) {
+        for (A element : this) {
+            functionToApply.call(element);
+        }
+    }
+
+    /**
+     * @return Returns a new list with the elements of the sequence
+     */
+    public List<A> toList() {
+        return addTo(new ArrayList<A>());
+    }
+
+    /**
+     * Adds the elements of the sequence to the given collection
+     *
+     * @param destination -
+     * @param <C>         The type of the collection
+     * @return the given collection
+     */
+    public <C extends Collection<? super A>> C addTo(C destination) {
+        for (A element : this) {
+            destination.add(element);
+        }
+
+        return destination;
+    }
+}
@@ -0,0 +1,254 @@
+package com.danieldisu;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Sorting algorithms behind the sortBy functions of Lists and ParallelLists. All of them are stable, elements with
+ * equal keys keep their original order.
+ */
+final class Sorting {
+
+    private static final int DIGIT_BITS = 8;
+    private static final int DIGIT_VALUES = 1 << DIGIT_BITS;
+    private static final int DIGIT_MASK = DIGIT_VALUES - 1;
+
+    private Sorting() {
+    }
+
+    /**
+     * An element decorated with its key, so the key function is called once per element and not once per comparison
+     */
+    static final class Keyed<K> {
+        final K key;
+        final Object element;
+
+        Keyed(K key, Object element) {
+            this.key = key;
+            this.element = element;
+        }
+
+        static <K> Comparator<Keyed<K>> byKey(final Comparator<? super K> comparator) {
+            return new Comparator<Keyed<K>>() {
+                @Override
+                public int compare(Keyed<K> keyed1, Keyed<K> keyed2) {
+                    return comparator.compare(keyed1.key, keyed2.key);
+                }
+            };
+        }
+    }
+
+    static <K extends Comparable<? super K>> Comparator<K> naturalOrder() {
+        return new Comparator<K>() {
+            @Override
+            public int compare(K key1, K key2) {
+                return key1.compareTo(key2);
+            }
+        };
+    }
+
+    /**
+     * Returns the elements of the sorted keyed elements in a new list
+     */
+    @SuppressWarnings("unchecked")
+    static <A> List<A> elementsOf(Keyed<?>[] keyed) {
+        ArrayList<A> result = new ArrayList<>(keyed.length);
+        for (Keyed<?> keyedElement : keyed) {
+            result.add((A) keyedElement.element);
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <A> List<A> toList(Object[] elements) {
+        ArrayList<A> result = new ArrayList<>(elements.length);
+        Collections.addAll(result, (A[]) elements);
+        return result;
+    }
+
+    /**
+     * Sorts the elements by their int keys with an LSD radix sort of 4 passes of 8 bits, in O(n) time. The counts of
+     * all the passes are computed in a single read of the keys, and the passes where all the keys have the same digit
+     * are skipped, so keys in a small range take fewer passes. The arrays are reused as buffers.
+     *
+     * @return the sorted elements, which is one of the two arrays given or a new one
+     */
+    static Object[] byIntKeys(int[] keys, Object[] elements) {
+        int size = keys.length;
+        int passes = Integer.SIZE / DIGIT_BITS;
+        int[][] counts = new int[passes][DIGIT_VALUES];
+
+        for (int key : keys) {
+            // flipping the sign bit orders negative keys before positive ones as unsigned values
+            int unsignedKey = key ^ Integer.MIN_VALUE;
+            for (int pass = 0; pass < passes; pass++) {
+                counts[pass][(unsignedKey >>> (pass * DIGIT_BITS)) & DIGIT_MASK]++;
+            }
+        }
+
+        int[] keyBuffer = null;
+        Object[] elementBuffer = null;
+
+        for (int pass = 0; pass < passes; pass++) {
+            int shift = pass * DIGIT_BITS;
+            int[] positions = counts[pass];
+            if (isSingleDigit(positions, size)) continue;
+
+            if (keyBuffer == null) {
+                keyBuffer = new int[size];
+                elementBuffer = new Object[size];
+            }
+            toStartPositions(positions);
+
+            for (int i = 0; i < size; i++) {
+                int position = positions[((keys[i] ^ Integer.MIN_VALUE) >>> shift) & DIGIT_MASK]++;
+                keyBuffer[position] = keys[i];
+                elementBuffer[position] = elements[i];
+            }
+
+            int[] sortedKeys = keyBuffer;
+            keyBuffer = keys;
+            keys = sortedKeys;
+            Object[] sortedElements = elementBuffer;
+            elementBuffer = elements;
+            elements = sortedElements;
+        }
+
+        return elements;
+    }
+
+    /**
+     * Same as byIntKeys for long keys, in up to 8 passes
+     */
+    static Object[] byLongKeys(long[] keys, Object[] elements) {
+        int size = keys.length;
+        int passes = Long.SIZE / DIGIT_BITS;
+        int[][] counts = new int[passes][DIGIT_VALUES];
+
+        for (long key : keys) {
+            long unsignedKey = key ^ Long.MIN_VALUE;
+            for (int pass = 0; pass < passes; pass++) {
+                counts[pass][(int) (unsignedKey >>> (pass * DIGIT_BITS)) & DIGIT_MASK]++;
+            }
+        }
+
+        long[] keyBuffer = null;
+        Object[] elementBuffer = null;
+
+        for (int pass = 0; pass < passes; pass++) {
+            int shift = pass * DIGIT_BITS;
+            int[] positions = counts[pass];
+            if (isSingleDigit(positions, size)) continue;
+
+            if (keyBuffer == null) {
+                keyBuffer = new long[size];
+                elementBuffer = new Object[size];
+            }
+            toStartPositions(positions);
+
+            for (int i = 0; i < size; i++) {
+                int position = positions[(int) ((keys[i] ^ Long.MIN_VALUE) >>> shift) & DIGIT_MASK]++;
+                keyBuffer[position] = keys[i];
+                elementBuffer[position] = elements[i];
+            }
+
+            long[] sortedKeys = keyBuffer;
+            keyBuffer = keys;
+            keys = sortedKeys;
+            Object[] sortedElements = elementBuffer;
+            elementBuffer = elements;
+            elements = sortedElements;
+        }
+
+        return elements;
+    }
+
+    /**
+     * Sorts the array with a merge sort whose halves are sorted in parallel in the pool, ranges smaller than the
+     * threshold are sorted with Arrays.sort
+     */
+    static <T> void parallelSort(ForkJoinPool pool, T[] elements, Comparator<? super T> comparator, int threshold) {
+        if (elements.length <= threshold) {
+            Arrays.sort(elements, comparator);
+            return;
+        }
+
+        T[] buffer = Arrays.copyOf(elements, elements.length);
+        pool.invoke(new MergeSortAction<>(elements, buffer, 0, elements.length, comparator, threshold));
+    }
+
+    private static boolean isSingleDigit(int[] counts, int size) {
+        for (int count : counts) {
+            if (count != 0) return count == size;
+        }
+        return true;
+    }
+
+    /**
+     * Replaces the count of each digit with the position where its first key goes
+     */
+    private static void toStartPositions(int[] counts) {
+        int position = 0;
+        for (int digit = 0; digit < counts.length; digit++) {
+            int count = counts[digit];
+            counts[digit] = position;
+            position += count;
+        }
+    }
+
+    /**
+     * Sorts both halves of the range in parallel and merges them through the buffer. The elements of the left half go
+     * first when they are equal, which keeps the sort stable.
+     */
+    private static final class MergeSortAction<T> extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final T[] elements;
+        private final T[] buffer;
+        private final int from;
+        private final int to;
+        private final Comparator<? super T> comparator;
+        private final int threshold;
+
+        MergeSortAction(T[] elements, T[] buffer, int from, int to, Comparator<? super T> comparator, int threshold) {
+            this.elements = elements;
+            this.buffer = buffer;
+            this.from = from;
+            this.to = to;
+            this.comparator = comparator;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= threshold) {
+                Arrays.sort(elements, from, to, comparator);
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(new MergeSortAction<>(elements, buffer, from, middle, comparator, threshold),
+                    new MergeSortAction<>(elements, buffer, middle, to, comparator, threshold));
+
+            // the halves are already in order when the last of the left one is not after the first of the right one
+            if (comparator.compare(elements[middle - 1], elements[middle]) <= 0) return;
+
+            System.arraycopy(elements, from, buffer, from, to - from);
+            int left = from;
+            int right = middle;
+            for (int i = from; i < to; i++) {
+                if (right >= to || (left < middle && comparator.compare(buffer[left], buffer[right]) <= 0)) {
+                    elements[i] = buffer[left++];
+                } else {
+                    elements[i] = buffer[right++];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.danieldisu;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread safe counter or sum that many threads can add to at the same time without waiting for each other, like
+ * LongAdder but available on Java 7 and Android. The value is split in stripes and each thread adds to one of them,
+ * a thread that finds its stripe contended moves to another one for its next adds. Each stripe is in its own cache
+ * line, so threads adding to different stripes do not invalidate each other's caches.
+ * <p>
+ * Adding is a single CAS in the common case. Reading sums all the stripes, so it is meant to be done once the producers
+ * have finished, a read while they add returns a value that may miss the adds that are running at the same time.
+ */
+public final class StripedLong {
+
+    /**
+     * Longs between two stripes, 8 longs are 64 bytes which is the size of a cache line in most processors
+     */
+    private static final int PADDING = 8;
+    private static final int MAX_STRIPES = 1 << 16;
+
+    /**
+     * Stripe hint of each thread, shared by all the instances
+     */
+    private static final ThreadLocal<int[]> PROBE = new ThreadLocal<int[]>() {
+        @Override
+        protected int[] initialValue() {
+            return new int[]{(int) Hashing.mix(Thread.currentThread().getId())};
+        }
+    };
+
+    private final AtomicLongArray stripes;
+    private final int mask;
+
+    /**
+     * Creates a StripedLong with one stripe per processor
+     */
+    public StripedLong() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param stripes the number of stripes, rounded up to a power of two. More stripes mean less contention but more
+     *                memory, 64 bytes each
+     */
+    public StripedLong(int stripes) {
+        if (stripes < 1) throw new IllegalArgumentException("stripes must be positive: " + stripes);
+
+        int stripeCount = 1;
+        while (stripeCount < stripes && stripeCount < MAX_STRIPES) {
+            stripeCount <<= 1;
+        }
+
+        // the first and last PADDING longs keep the stripes away from the array header and the next object
+        this.stripes = new AtomicLongArray((stripeCount + 1) * PADDING);
+        this.mask = stripeCount - 1;
+    }
+
+    /**
+     * @param delta the value to add, it can be negative
+     */
+    public void add(long delta) {
+        int[] probe = PROBE.get();
+        int index = ((probe[0] & mask) + 1) * PADDING;
+
+        long current = stripes.get(index);
+        if (!stripes.compareAndSet(index, current, current + delta)) {
+            // another thread is adding to the same stripe, move to another one for the next adds
+            probe[0] = nextProbe(probe[0]);
+            stripes.getAndAdd(index, delta);
+        }
+    }
+
+    public void increment() {
+        add(1);
+    }
+
+    /**
+     * @return the sum of all the stripes
+     */
+    public long sum() {
+        long sum = 0;
+        for (int stripe = 0; stripe <= mask; stripe++) {
+            sum += stripes.get((stripe + 1) * PADDING);
+        }
+        return sum;
+    }
+
+    /**
+     * Sets all the stripes to 0, the adds that run at the same time may or may not be kept
+     */
+    public void reset() {
+        for (int stripe = 0; stripe <= mask; stripe++) {
+            stripes.set((stripe + 1) * PADDING, 0);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return Long.toString(sum());
+    }
+
+    /**
+     * Marsaglia xorshift, it never returns 0 for a value that is not 0
+     */
+    private static int nextProbe(int probe) {
+        if (probe == 0) return 1;
+        probe ^= probe << 13;
+        probe ^= probe >>> 17;
+        probe ^= probe << 5;
+        return probe;
+    }
+}
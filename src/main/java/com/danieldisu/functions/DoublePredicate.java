@@ -0,0 +1,8 @@
+package com.danieldisu.functions;
+
+/**
+ * Represents a predicate on a primitive double, used by DoubleColumn to test values without boxing them
+ */
+public interface DoublePredicate {
+    boolean call(double value);
+}
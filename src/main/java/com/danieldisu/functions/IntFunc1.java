@@ -0,0 +1,10 @@
+package com.danieldisu.functions;
+
+/**
+ * Represents a function with one argument that returns an int, used instead of Func1 to avoid boxing the result
+ *
+ * @param <A> The type of the argument
+ */
+public interface IntFunc1<A> {
+    int call(A a);
+}
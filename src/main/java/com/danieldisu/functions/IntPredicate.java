@@ -0,0 +1,8 @@
+package com.danieldisu.functions;
+
+/**
+ * Represents a predicate on a primitive int, used by IntColumn to test values without boxing them
+ */
+public interface IntPredicate {
+    boolean call(int value);
+}
@@ -0,0 +1,10 @@
+package com.danieldisu.functions;
+
+/**
+ * Represents a function with one argument that returns a long, used instead of Func1 to avoid boxing the result
+ *
+ * @param <A> The type of the argument
+ */
+public interface LongFunc1<A> {
+    long call(A a);
+}
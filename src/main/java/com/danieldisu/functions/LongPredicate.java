@@ -0,0 +1,8 @@
+package com.danieldisu.functions;
+
+/**
+ * Represents a predicate on a primitive long, used by LongColumn to test values without boxing them
+ */
+public interface LongPredicate {
+    boolean call(long value);
+}
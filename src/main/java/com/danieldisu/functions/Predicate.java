@@ -0,0 +1,11 @@
+package com.danieldisu.functions;
+
+/**
+ * Represents a function with one argument that returns a primitive boolean, used instead of Func1&lt;A, Boolean&gt; to
+ * avoid boxing the result
+ *
+ * @param <A> The type of the argument
+ */
+public interface Predicate<A> {
+    boolean call(A a);
+}